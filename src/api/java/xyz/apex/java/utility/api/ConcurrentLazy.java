@@ -0,0 +1,199 @@
+package xyz.apex.java.utility.api;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Base implementation for the lock based concurrent {@link Lazy} variants.
+ * <br>
+ * The value is published through a single immutable state object stamped with a generation,
+ * which {@link #invalidate()} replaces without taking the load lock.
+ * Loads run under a {@link ReentrantLock}, so exactly one thread runs the supplier per generation,
+ * and a load only publishes its value if no invalidation replaced the state it started from.
+ * <br>
+ * When serving stale values, threads finding a load in flight are returned the previous generations value without blocking.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy.ConcurrentNotNullLazy
+ * @see Lazy.ConcurrentNullableLazy
+ */
+abstract class ConcurrentLazy<T> implements TimedLazy<T>
+{
+	private static final VarHandle STATE;
+	// marks a state without a value, values themselves may be null
+	private static final Object UNSET = new Object();
+
+	static
+	{
+		try
+		{
+			STATE = MethodHandles.lookup().findVarHandle(ConcurrentLazy.class, "state", State.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Supplier<T> supplier;
+	private final boolean serveStale;
+	// a j.u.c lock rather than synchronized, so waiting virtual threads do not pin their carrier
+	private final ReentrantLock lock = new ReentrantLock();
+	private volatile State state = new State(UNSET, 0L, UNSET);
+
+	ConcurrentLazy(Supplier<T> supplier, boolean serveStale)
+	{
+		this.supplier = supplier;
+		this.serveStale = serveStale;
+	}
+
+	/**
+	 * Validates the value returned from the backing supplier before it is published.
+	 *
+	 * @param value Value returned from the backing supplier.
+	 * @return The value to be published.
+	 */
+	@Nullable
+	abstract T check(@Nullable T value);
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see Lazy#get()
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	@Override
+	public T get()
+	{
+		// read the state exactly once so a concurrent invalidate can never be observed half way through
+		Object value = state.value;
+
+		if(value != UNSET)
+			return (T) value;
+
+		try
+		{
+			return getSlow(false, 0L);
+		}
+		catch(InterruptedException | TimeoutException e)
+		{
+			// untimed waits are neither interruptible nor time out, this can not happen
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * The timeout bounds waiting for the load lock, the thread which acquires it runs the supplier to completion.
+	 *
+	 * @see TimedLazy#get(Duration)
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	@Override
+	public T get(Duration timeout) throws InterruptedException, TimeoutException
+	{
+		Object value = state.value;
+
+		if(value != UNSET)
+			return (T) value;
+
+		return getSlow(true, timeout.toNanos());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private T getSlow(boolean timed, long timeoutNanos) throws InterruptedException, TimeoutException
+	{
+		if(lock.isHeldByCurrentThread())
+			throw new IllegalStateException("Recursive initialization of Lazy");
+
+		if(!lock.tryLock())
+		{
+			// a load is in flight on another thread
+			Object stale = state.stale;
+
+			if(serveStale && stale != UNSET)
+				return (T) stale;
+
+			if(!timed)
+				lock.lock();
+			else if(!lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS))
+				throw new TimeoutException("Timed out waiting for Lazy to load");
+		}
+
+		try
+		{
+			State current = state;
+
+			if(current.value != UNSET)
+				return (T) current.value;
+
+			T value = check(supplier.get());
+			// a failed CAS means we were invalidated mid load, hand the result to this caller but do not cache it
+			STATE.compareAndSet(this, current, new State(value, current.generation, UNSET));
+			return value;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Bumps the generation of this {@link Lazy} without waiting for a load in flight,
+	 * the next call to {@link #get()} reloads the value and a load already in flight is not cached once it completes.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	@Override
+	public void invalidate()
+	{
+		for(;;)
+		{
+			State current = state;
+			Object stale = !serveStale ? UNSET : current.value != UNSET ? current.value : current.stale;
+
+			if(STATE.compareAndSet(this, current, new State(UNSET, current.generation + 1L, stale)))
+				return;
+		}
+	}
+
+	/**
+	 * Returns the current generation of this {@link Lazy}.
+	 * <br>
+	 * The generation starts at {@code 0} and is incremented by every call to {@link #invalidate()}.
+	 *
+	 * @return The current generation of this {@link Lazy}.
+	 */
+	public long generation()
+	{
+		return state.generation;
+	}
+
+	private static final class State
+	{
+		@Nullable private final Object value;
+		private final long generation;
+		// the previous generations value, only retained when serving stale values
+		@Nullable private final Object stale;
+
+		private State(@Nullable Object value, long generation, @Nullable Object stale)
+		{
+			this.value = value;
+			this.generation = generation;
+			this.stale = stale;
+		}
+	}
+}
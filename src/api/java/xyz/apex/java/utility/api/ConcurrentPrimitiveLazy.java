@@ -0,0 +1,112 @@
+package xyz.apex.java.utility.api;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Base implementation for the concurrent primitive {@link Lazy} specializations.
+ * <br>
+ * Whether the value is loaded is tracked by a single stamp, even while unloaded and odd once loaded,
+ * which {@link #invalidate()} bumps past the current generation without taking the load lock.
+ * Loads run under a {@link ReentrantLock} and only mark the value loaded if no invalidation bumped the stamp they started from,
+ * so a load in flight can never resurrect a value computed before an invalidation.
+ * <br>
+ * Subclasses hold the value in a volatile primitive field, written by {@link #store()} before the stamp is published.
+ *
+ * @see LazyInt.ConcurrentLazyInt
+ * @see LazyLong.ConcurrentLazyLong
+ * @see LazyDouble.ConcurrentLazyDouble
+ * @see LazyBoolean.ConcurrentLazyBoolean
+ */
+abstract class ConcurrentPrimitiveLazy
+{
+	private static final VarHandle STAMP;
+
+	static
+	{
+		try
+		{
+			STAMP = MethodHandles.lookup().findVarHandle(ConcurrentPrimitiveLazy.class, "stamp", long.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	// a j.u.c lock rather than synchronized, so waiting virtual threads do not pin their carrier
+	private final ReentrantLock lock = new ReentrantLock();
+	private volatile long stamp = 0L;
+
+	/**
+	 * Retrieves the value from the backing supplier and stores it in the value field.
+	 */
+	abstract void store();
+
+	/**
+	 * Returns whether the value field holds a loaded value.
+	 *
+	 * @return Whether the value field holds a loaded value.
+	 */
+	final boolean isLoaded()
+	{
+		return (stamp & 1L) != 0L;
+	}
+
+	/**
+	 * Loads the value into the value field, unless another thread loaded it first.
+	 * <br>
+	 * If this {@link Lazy} is invalidated mid load, the value field is still written for the calling thread to read,
+	 * but is not marked loaded so the next read reloads it.
+	 */
+	final void load()
+	{
+		if(lock.isHeldByCurrentThread())
+			throw new IllegalStateException("Recursive initialization of Lazy");
+
+		lock.lock();
+
+		try
+		{
+			long current = stamp;
+
+			if((current & 1L) != 0L)
+				return;
+
+			store();
+			STAMP.compareAndSet(this, current, current | 1L);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Invalidates this {@link Lazy} without waiting for a load in flight,
+	 * the next read reloads the value and a load already in flight is not marked loaded once it completes.
+	 */
+	public void invalidate()
+	{
+		for(;;)
+		{
+			long current = stamp;
+
+			if(STAMP.compareAndSet(this, current, (current | 1L) + 1L))
+				return;
+		}
+	}
+
+	/**
+	 * Returns the current generation of this {@link Lazy}.
+	 * <br>
+	 * The generation starts at {@code 0} and is incremented by every call to {@link #invalidate()}.
+	 *
+	 * @return The current generation of this {@link Lazy}.
+	 */
+	public long generation()
+	{
+		return stamp >>> 1;
+	}
+}
@@ -2,12 +2,20 @@ package xyz.apex.java.utility.api;
 
 import org.jetbrains.annotations.Nullable;
 
+import xyz.apex.java.utility.api.lazy.AtomicNotNullLazy;
+import xyz.apex.java.utility.api.lazy.AtomicNullableLazy;
+import xyz.apex.java.utility.api.lazy.LazyNode;
 import xyz.apex.java.utility.api.nullness.NotNullSupplier;
 import xyz.apex.java.utility.api.nullness.NotNullType;
 import xyz.apex.java.utility.api.nullness.NullableSupplier;
 import xyz.apex.java.utility.api.nullness.NullableType;
+import xyz.apex.java.utility.api.tuple.Pair;
+import xyz.apex.java.utility.api.tuple.Quad;
+import xyz.apex.java.utility.api.tuple.Triple;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -33,6 +41,93 @@ public interface Lazy<T> extends Supplier<T>
 	 */
 	void invalidate();
 
+	/**
+	 * Creates a derived {@link Lazy} whose value is the result of applying the given mapper to the value of this {@link Lazy}.
+	 * <br>
+	 * The derived {@link Lazy} is invalidated whenever this {@link Lazy} is invalidated through its {@link LazyNode}.
+	 *
+	 * @param mapper Function applied to the value of this {@link Lazy}.
+	 * @param <R> The backing object type for the derived {@link Lazy}.
+	 * @return A new derived {@link Lazy}.
+	 * @see LazyNode
+	 */
+	default <R> Lazy<R> map(Function<? super T, ? extends R> mapper)
+	{
+		return LazyNode.map(this, mapper);
+	}
+
+	/**
+	 * Creates a derived {@link Lazy} whose value is the value of the {@link Lazy} returned by applying the given mapper to the value of this {@link Lazy}.
+	 * <br>
+	 * The derived {@link Lazy} is invalidated whenever this {@link Lazy}, or the returned {@link Lazy}, is invalidated through its {@link LazyNode}.
+	 *
+	 * @param mapper Function applied to the value of this {@link Lazy}.
+	 * @param <R> The backing object type for the derived {@link Lazy}.
+	 * @return A new derived {@link Lazy}.
+	 * @see LazyNode
+	 */
+	default <R> Lazy<R> flatMap(Function<? super T, ? extends Lazy<? extends R>> mapper)
+	{
+		return LazyNode.flatMap(this, mapper);
+	}
+
+	/**
+	 * Creates a derived {@link Lazy} whose value is a {@link Pair} of the values of the given lazies.
+	 * <br>
+	 * The derived {@link Lazy} is invalidated whenever any of the given lazies is invalidated through its {@link LazyNode}.
+	 *
+	 * @param first The first {@link Lazy}.
+	 * @param second The second {@link Lazy}.
+	 * @param <A> The first backing object type.
+	 * @param <B> The second backing object type.
+	 * @return A new derived {@link Lazy}.
+	 * @see LazyNode
+	 */
+	static <A, B> Lazy<Pair<A, B>> combine(Lazy<A> first, Lazy<B> second)
+	{
+		return LazyNode.combine(first, second);
+	}
+
+	/**
+	 * Creates a derived {@link Lazy} whose value is a {@link Triple} of the values of the given lazies.
+	 * <br>
+	 * The derived {@link Lazy} is invalidated whenever any of the given lazies is invalidated through its {@link LazyNode}.
+	 *
+	 * @param first The first {@link Lazy}.
+	 * @param second The second {@link Lazy}.
+	 * @param third The third {@link Lazy}.
+	 * @param <A> The first backing object type.
+	 * @param <B> The second backing object type.
+	 * @param <C> The third backing object type.
+	 * @return A new derived {@link Lazy}.
+	 * @see LazyNode
+	 */
+	static <A, B, C> Lazy<Triple<A, B, C>> combine(Lazy<A> first, Lazy<B> second, Lazy<C> third)
+	{
+		return LazyNode.combine(first, second, third);
+	}
+
+	/**
+	 * Creates a derived {@link Lazy} whose value is a {@link Quad} of the values of the given lazies.
+	 * <br>
+	 * The derived {@link Lazy} is invalidated whenever any of the given lazies is invalidated through its {@link LazyNode}.
+	 *
+	 * @param first The first {@link Lazy}.
+	 * @param second The second {@link Lazy}.
+	 * @param third The third {@link Lazy}.
+	 * @param fourth The fourth {@link Lazy}.
+	 * @param <A> The first backing object type.
+	 * @param <B> The second backing object type.
+	 * @param <C> The third backing object type.
+	 * @param <D> The fourth backing object type.
+	 * @return A new derived {@link Lazy}.
+	 * @see LazyNode
+	 */
+	static <A, B, C, D> Lazy<Quad<A, B, C, D>> combine(Lazy<A> first, Lazy<B> second, Lazy<C> third, Lazy<D> fourth)
+	{
+		return LazyNode.combine(first, second, third, fourth);
+	}
+
 	/**
 	 * Creates a new {@link Lazy} object that allows returning null values.
 	 *
@@ -45,7 +140,7 @@ public interface Lazy<T> extends Supplier<T>
 	 */
 	static <@NullableType T> Lazy<T> ofNullable(NullableSupplier<T> supplier, boolean concurrent)
 	{
-		return concurrent ? new ConcurrentNullableLazy<>(supplier) : new NullableLazy<>(supplier);
+		return concurrent ? new ConcurrentNullableLazy<>(supplier, false) : new NullableLazy<>(supplier);
 	}
 
 	/**
@@ -76,7 +171,7 @@ public interface Lazy<T> extends Supplier<T>
 	 */
 	static <@NotNullType T> Lazy<T> of(NotNullSupplier<T> supplier, boolean concurrent)
 	{
-		return concurrent ? new ConcurrentNotNullLazy<>(supplier) : new NotNullLazy<>(supplier);
+		return concurrent ? new ConcurrentNotNullLazy<>(supplier, false) : new NotNullLazy<>(supplier);
 	}
 
 	/**
@@ -94,6 +189,168 @@ public interface Lazy<T> extends Supplier<T>
 		return of(supplier, false);
 	}
 
+	/**
+	 * Creates a new concurrent (Thread safe) {@link Lazy} object that allows returning null values.
+	 * <br>
+	 * Exactly one thread reloads the value after each {@link #invalidate()}.
+	 * When {@code serveStale} is {@code true}, all other threads are returned the previous value while the reload is in flight,
+	 * otherwise they wait for the reloaded value.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param serveStale Whether the previous value should be returned while a reload is in flight.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @see Supplier
+	 * @see NullableSupplier
+	 * @see ConcurrentNullableLazy
+	 * @return A new concurrent {@link Lazy} that allows null values.
+	 */
+	static <@NullableType T> TimedLazy<T> ofNullableConcurrent(NullableSupplier<T> supplier, boolean serveStale)
+	{
+		return new ConcurrentNullableLazy<>(supplier, serveStale);
+	}
+
+	/**
+	 * Creates a new concurrent (Thread safe) {@link Lazy} object whose resulting objects must never be null.
+	 * <br>
+	 * Exactly one thread reloads the value after each {@link #invalidate()}.
+	 * When {@code serveStale} is {@code true}, all other threads are returned the previous value while the reload is in flight,
+	 * otherwise they wait for the reloaded value.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param serveStale Whether the previous value should be returned while a reload is in flight.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @see Supplier
+	 * @see NotNullSupplier
+	 * @see ConcurrentNotNullLazy
+	 * @return A new concurrent {@link Lazy} that does not allow null values.
+	 */
+	static <@NotNullType T> TimedLazy<T> ofConcurrent(NotNullSupplier<T> supplier, boolean serveStale)
+	{
+		return new ConcurrentNotNullLazy<>(supplier, serveStale);
+	}
+
+	/**
+	 * Creates a new lock-free concurrent (Thread safe) {@link Lazy} object that allows returning null values.
+	 * <br>
+	 * Once initialized, reading the value is a single acquire load, making this suitable for hot read paths.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @see Supplier
+	 * @see NullableSupplier
+	 * @see AtomicNullableLazy
+	 * @see #ofNullableAtomic(NullableSupplier, boolean)
+	 * @return A new lock-free {@link Lazy} that allows null values.
+	 */
+	static <@NullableType T> TimedLazy<T> ofNullableAtomic(NullableSupplier<T> supplier)
+	{
+		return ofNullableAtomic(supplier, false);
+	}
+
+	/**
+	 * Creates a new lock-free concurrent (Thread safe) {@link Lazy} object that allows returning null values.
+	 * <br>
+	 * Exactly one thread reloads the value after each {@link #invalidate()}.
+	 * When {@code serveStale} is {@code true}, all other threads are returned the previous value while the reload is in flight,
+	 * otherwise they wait for the reloaded value.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param serveStale Whether the previous value should be returned while a reload is in flight.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @see Supplier
+	 * @see NullableSupplier
+	 * @see AtomicNullableLazy
+	 * @return A new lock-free {@link Lazy} that allows null values.
+	 */
+	static <@NullableType T> TimedLazy<T> ofNullableAtomic(NullableSupplier<T> supplier, boolean serveStale)
+	{
+		return new AtomicNullableLazy<>(supplier, serveStale);
+	}
+
+	/**
+	 * Creates a new lock-free concurrent (Thread safe) {@link Lazy} object that allows returning null values,
+	 * whose loads are abandoned once they exceed the given deadline.
+	 * <br>
+	 * An abandoned load is no longer waited for and its result is not cached, leaving the {@link Lazy} uninitialized
+	 * so the next caller starts a new load.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param serveStale Whether the previous value should be returned while a reload is in flight.
+	 * @param loadDeadline The maximum time a single load may take before it is abandoned, must be positive.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @throws IllegalArgumentException if the load deadline is zero or negative
+	 * @see Supplier
+	 * @see NullableSupplier
+	 * @see AtomicNullableLazy
+	 * @see TimedLazy
+	 * @return A new lock-free {@link Lazy} that allows null values.
+	 */
+	static <@NullableType T> TimedLazy<T> ofNullableAtomic(NullableSupplier<T> supplier, boolean serveStale, Duration loadDeadline)
+	{
+		return new AtomicNullableLazy<>(supplier, serveStale, loadDeadline);
+	}
+
+	/**
+	 * Creates a new lock-free concurrent (Thread safe) {@link Lazy} object whose resulting objects must never be null.
+	 * <br>
+	 * Once initialized, reading the value is a single acquire load, making this suitable for hot read paths.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @see Supplier
+	 * @see NotNullSupplier
+	 * @see AtomicNotNullLazy
+	 * @see #ofAtomic(NotNullSupplier, boolean)
+	 * @return A new lock-free {@link Lazy} that does not allow null values.
+	 */
+	static <@NotNullType T> TimedLazy<T> ofAtomic(NotNullSupplier<T> supplier)
+	{
+		return ofAtomic(supplier, false);
+	}
+
+	/**
+	 * Creates a new lock-free concurrent (Thread safe) {@link Lazy} object whose resulting objects must never be null.
+	 * <br>
+	 * Exactly one thread reloads the value after each {@link #invalidate()}.
+	 * When {@code serveStale} is {@code true}, all other threads are returned the previous value while the reload is in flight,
+	 * otherwise they wait for the reloaded value.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param serveStale Whether the previous value should be returned while a reload is in flight.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @see Supplier
+	 * @see NotNullSupplier
+	 * @see AtomicNotNullLazy
+	 * @return A new lock-free {@link Lazy} that does not allow null values.
+	 */
+	static <@NotNullType T> TimedLazy<T> ofAtomic(NotNullSupplier<T> supplier, boolean serveStale)
+	{
+		return new AtomicNotNullLazy<>(supplier, serveStale);
+	}
+
+	/**
+	 * Creates a new lock-free concurrent (Thread safe) {@link Lazy} object whose resulting objects must never be null,
+	 * whose loads are abandoned once they exceed the given deadline.
+	 * <br>
+	 * An abandoned load is no longer waited for and its result is not cached, leaving the {@link Lazy} uninitialized
+	 * so the next caller starts a new load.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param serveStale Whether the previous value should be returned while a reload is in flight.
+	 * @param loadDeadline The maximum time a single load may take before it is abandoned, must be positive.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @throws IllegalArgumentException if the load deadline is zero or negative
+	 * @see Supplier
+	 * @see NotNullSupplier
+	 * @see AtomicNotNullLazy
+	 * @see TimedLazy
+	 * @return A new lock-free {@link Lazy} that does not allow null values.
+	 */
+	static <@NotNullType T> TimedLazy<T> ofAtomic(NotNullSupplier<T> supplier, boolean serveStale, Duration loadDeadline)
+	{
+		return new AtomicNotNullLazy<>(supplier, serveStale, loadDeadline);
+	}
+
 	/**
 	 * A {@link Lazy} that allows null values.
 	 *
@@ -153,55 +410,18 @@ public interface Lazy<T> extends Supplier<T>
 	 * @see Supplier
 	 * @see NullableSupplier
 	 */
-	@SuppressWarnings({ "FieldMayBeFinal", "SynchronizationOnLocalVariableOrMethodParameter" })
-	final class ConcurrentNullableLazy<T> implements Lazy<T>, NullableSupplier<T>
+	final class ConcurrentNullableLazy<T> extends ConcurrentLazy<T> implements NullableSupplier<T>
 	{
-		private volatile NullableSupplier<T> supplier;
-		@Nullable private volatile T instance = null;
-		private volatile boolean initialized = false;
-		private volatile Object lock = new Object();
-
-		private ConcurrentNullableLazy(NullableSupplier<T> supplier)
+		private ConcurrentNullableLazy(NullableSupplier<T> supplier, boolean serveStale)
 		{
-			this.supplier = supplier;
+			super(supplier, serveStale);
 		}
 
-		/**
-		 * {@inheritDoc}
-		 *
-		 * @see Lazy#get()
-		 */
 		@Nullable
 		@Override
-		public T get()
+		T check(@Nullable T value)
 		{
-			Object localLock = lock;
-
-			if(!initialized)
-			{
-				synchronized(localLock)
-				{
-					if(!initialized)
-					{
-						instance = supplier.get();
-						initialized = true;
-					}
-				}
-			}
-
-			return instance;
-		}
-
-		/**
-		 * {@inheritDoc}
-		 *
-		 * @see Lazy#invalidate()
-		 */
-		@Override
-		public void invalidate()
-		{
-			instance = null;
-			initialized = false;
+			return value;
 		}
 	}
 
@@ -263,54 +483,17 @@ public interface Lazy<T> extends Supplier<T>
 	 * @see Supplier
 	 * @see NotNullLazy
 	 */
-	@SuppressWarnings({ "FieldMayBeFinal", "SynchronizationOnLocalVariableOrMethodParameter" })
-	final class ConcurrentNotNullLazy<T> implements Lazy<T>, NotNullSupplier<T>
+	final class ConcurrentNotNullLazy<T> extends ConcurrentLazy<T> implements NotNullSupplier<T>
 	{
-		private volatile NotNullSupplier<T> supplier;
-		@Nullable private volatile T instance = null;
-		private volatile boolean initialized = false;
-		private volatile Object lock = new Object();
-
-		private ConcurrentNotNullLazy(NotNullSupplier<T> supplier)
-		{
-			this.supplier = supplier;
-		}
-
-		/**
-		 * {@inheritDoc}
-		 *
-		 * @see Lazy#get()
-		 */
-		@Override
-		public T get()
+		private ConcurrentNotNullLazy(NotNullSupplier<T> supplier, boolean serveStale)
 		{
-			Object localLock = lock;
-
-			if(!initialized)
-			{
-				synchronized(localLock)
-				{
-					if(!initialized)
-					{
-						instance = supplier.get();
-						initialized = true;
-					}
-				}
-			}
-
-			return Objects.requireNonNull(instance);
+			super(supplier, serveStale);
 		}
 
-		/**
-		 * {@inheritDoc}
-		 *
-		 * @see Lazy#invalidate()
-		 */
 		@Override
-		public void invalidate()
+		T check(@Nullable T value)
 		{
-			instance = null;
-			initialized = false;
+			return Objects.requireNonNull(value, "Unexpected null value from supplier");
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package xyz.apex.java.utility.api;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A primitive boolean specialization of {@link Lazy},
+ * which caches the value received from {@link #getAsBoolean()}
+ * and returns this same value until the lazy is invalidated using {@link #invalidate()}.
+ * <br>
+ * Values are never boxed, neither when loaded nor when read.
+ *
+ * @see Lazy
+ * @see BooleanSupplier
+ */
+public interface LazyBoolean extends BooleanSupplier
+{
+	/**
+	 * Attempt to retrieve and cache value to be lazily returned later.
+	 *
+	 * @return Lazily obtained value from {@link BooleanSupplier}.
+	 * @see BooleanSupplier#getAsBoolean()
+	 */
+	@Override boolean getAsBoolean();
+
+	/**
+	 * Invalidates the {@link LazyBoolean} object.
+	 * Future calls to {@link #getAsBoolean()} will try to retrieve and cache the value again.
+	 */
+	void invalidate();
+
+	/**
+	 * Creates a new {@link LazyBoolean} object.
+	 *
+	 * @param supplier The backing {@link BooleanSupplier} used to retrieve values from.
+	 * @param concurrent Whether this {@link LazyBoolean} should be concurrent or not (Thread safe).
+	 * @see BooleanSupplier
+	 * @return A new {@link LazyBoolean}.
+	 */
+	static LazyBoolean of(BooleanSupplier supplier, boolean concurrent)
+	{
+		return concurrent ? new ConcurrentLazyBoolean(supplier) : new PlainLazyBoolean(supplier);
+	}
+
+	/**
+	 * Creates a new {@link LazyBoolean} object.
+	 * (This {@link LazyBoolean} is not concurrent / thread safe).
+	 *
+	 * @param supplier The backing {@link BooleanSupplier} used to retrieve values from.
+	 * @see BooleanSupplier
+	 * @see #of(BooleanSupplier, boolean)
+	 * @return A new {@link LazyBoolean}.
+	 */
+	static LazyBoolean of(BooleanSupplier supplier)
+	{
+		return of(supplier, false);
+	}
+
+	/**
+	 * A non concurrent {@link LazyBoolean}.
+	 *
+	 * @see LazyBoolean
+	 * @see BooleanSupplier
+	 */
+	final class PlainLazyBoolean implements LazyBoolean
+	{
+		private final BooleanSupplier supplier;
+		private boolean instance = false;
+		private boolean initialized = false;
+
+		private PlainLazyBoolean(BooleanSupplier supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyBoolean#getAsBoolean()
+		 */
+		@Override
+		public boolean getAsBoolean()
+		{
+			if(!initialized)
+			{
+				instance = supplier.getAsBoolean();
+				initialized = true;
+			}
+
+			return instance;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyBoolean#invalidate()
+		 */
+		@Override
+		public void invalidate()
+		{
+			initialized = false;
+		}
+	}
+
+	/**
+	 * Concurrent (Thread safe) variant of {@link PlainLazyBoolean}.
+	 * <br>
+	 * The value is published before it is marked loaded, and never cleared by {@link #invalidate()},
+	 * so a reader racing an invalidation observes either the old or the new value.
+	 *
+	 * @see LazyBoolean
+	 * @see PlainLazyBoolean
+	 * @see BooleanSupplier
+	 */
+	final class ConcurrentLazyBoolean extends ConcurrentPrimitiveLazy implements LazyBoolean
+	{
+		private final BooleanSupplier supplier;
+		private volatile boolean instance = false;
+
+		private ConcurrentLazyBoolean(BooleanSupplier supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyBoolean#getAsBoolean()
+		 */
+		@Override
+		public boolean getAsBoolean()
+		{
+			if(!isLoaded())
+				load();
+
+			return instance;
+		}
+
+		@Override
+		void store()
+		{
+			instance = supplier.getAsBoolean();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package xyz.apex.java.utility.api;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * A primitive double specialization of {@link Lazy},
+ * which caches the value received from {@link #getAsDouble()}
+ * and returns this same value until the lazy is invalidated using {@link #invalidate()}.
+ * <br>
+ * Values are never boxed, neither when loaded nor when read.
+ *
+ * @see Lazy
+ * @see DoubleSupplier
+ */
+public interface LazyDouble extends DoubleSupplier
+{
+	/**
+	 * Attempt to retrieve and cache value to be lazily returned later.
+	 *
+	 * @return Lazily obtained value from {@link DoubleSupplier}.
+	 * @see DoubleSupplier#getAsDouble()
+	 */
+	@Override double getAsDouble();
+
+	/**
+	 * Invalidates the {@link LazyDouble} object.
+	 * Future calls to {@link #getAsDouble()} will try to retrieve and cache the value again.
+	 */
+	void invalidate();
+
+	/**
+	 * Creates a new {@link LazyDouble} object.
+	 *
+	 * @param supplier The backing {@link DoubleSupplier} used to retrieve values from.
+	 * @param concurrent Whether this {@link LazyDouble} should be concurrent or not (Thread safe).
+	 * @see DoubleSupplier
+	 * @return A new {@link LazyDouble}.
+	 */
+	static LazyDouble of(DoubleSupplier supplier, boolean concurrent)
+	{
+		return concurrent ? new ConcurrentLazyDouble(supplier) : new PlainLazyDouble(supplier);
+	}
+
+	/**
+	 * Creates a new {@link LazyDouble} object.
+	 * (This {@link LazyDouble} is not concurrent / thread safe).
+	 *
+	 * @param supplier The backing {@link DoubleSupplier} used to retrieve values from.
+	 * @see DoubleSupplier
+	 * @see #of(DoubleSupplier, boolean)
+	 * @return A new {@link LazyDouble}.
+	 */
+	static LazyDouble of(DoubleSupplier supplier)
+	{
+		return of(supplier, false);
+	}
+
+	/**
+	 * A non concurrent {@link LazyDouble}.
+	 *
+	 * @see LazyDouble
+	 * @see DoubleSupplier
+	 */
+	final class PlainLazyDouble implements LazyDouble
+	{
+		private final DoubleSupplier supplier;
+		private double instance = 0D;
+		private boolean initialized = false;
+
+		private PlainLazyDouble(DoubleSupplier supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyDouble#getAsDouble()
+		 */
+		@Override
+		public double getAsDouble()
+		{
+			if(!initialized)
+			{
+				instance = supplier.getAsDouble();
+				initialized = true;
+			}
+
+			return instance;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyDouble#invalidate()
+		 */
+		@Override
+		public void invalidate()
+		{
+			initialized = false;
+		}
+	}
+
+	/**
+	 * Concurrent (Thread safe) variant of {@link PlainLazyDouble}.
+	 * <br>
+	 * The value is published before it is marked loaded, and never cleared by {@link #invalidate()},
+	 * so a reader racing an invalidation observes either the old or the new value.
+	 *
+	 * @see LazyDouble
+	 * @see PlainLazyDouble
+	 * @see DoubleSupplier
+	 */
+	final class ConcurrentLazyDouble extends ConcurrentPrimitiveLazy implements LazyDouble
+	{
+		private final DoubleSupplier supplier;
+		private volatile double instance = 0D;
+
+		private ConcurrentLazyDouble(DoubleSupplier supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyDouble#getAsDouble()
+		 */
+		@Override
+		public double getAsDouble()
+		{
+			if(!isLoaded())
+				load();
+
+			return instance;
+		}
+
+		@Override
+		void store()
+		{
+			instance = supplier.getAsDouble();
+		}
+	}
+}
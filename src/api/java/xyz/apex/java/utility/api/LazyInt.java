@@ -0,0 +1,144 @@
+package xyz.apex.java.utility.api;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A primitive int specialization of {@link Lazy},
+ * which caches the value received from {@link #getAsInt()}
+ * and returns this same value until the lazy is invalidated using {@link #invalidate()}.
+ * <br>
+ * Values are never boxed, neither when loaded nor when read.
+ *
+ * @see Lazy
+ * @see IntSupplier
+ */
+public interface LazyInt extends IntSupplier
+{
+	/**
+	 * Attempt to retrieve and cache value to be lazily returned later.
+	 *
+	 * @return Lazily obtained value from {@link IntSupplier}.
+	 * @see IntSupplier#getAsInt()
+	 */
+	@Override int getAsInt();
+
+	/**
+	 * Invalidates the {@link LazyInt} object.
+	 * Future calls to {@link #getAsInt()} will try to retrieve and cache the value again.
+	 */
+	void invalidate();
+
+	/**
+	 * Creates a new {@link LazyInt} object.
+	 *
+	 * @param supplier The backing {@link IntSupplier} used to retrieve values from.
+	 * @param concurrent Whether this {@link LazyInt} should be concurrent or not (Thread safe).
+	 * @see IntSupplier
+	 * @return A new {@link LazyInt}.
+	 */
+	static LazyInt of(IntSupplier supplier, boolean concurrent)
+	{
+		return concurrent ? new ConcurrentLazyInt(supplier) : new PlainLazyInt(supplier);
+	}
+
+	/**
+	 * Creates a new {@link LazyInt} object.
+	 * (This {@link LazyInt} is not concurrent / thread safe).
+	 *
+	 * @param supplier The backing {@link IntSupplier} used to retrieve values from.
+	 * @see IntSupplier
+	 * @see #of(IntSupplier, boolean)
+	 * @return A new {@link LazyInt}.
+	 */
+	static LazyInt of(IntSupplier supplier)
+	{
+		return of(supplier, false);
+	}
+
+	/**
+	 * A non concurrent {@link LazyInt}.
+	 *
+	 * @see LazyInt
+	 * @see IntSupplier
+	 */
+	final class PlainLazyInt implements LazyInt
+	{
+		private final IntSupplier supplier;
+		private int instance = 0;
+		private boolean initialized = false;
+
+		private PlainLazyInt(IntSupplier supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyInt#getAsInt()
+		 */
+		@Override
+		public int getAsInt()
+		{
+			if(!initialized)
+			{
+				instance = supplier.getAsInt();
+				initialized = true;
+			}
+
+			return instance;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyInt#invalidate()
+		 */
+		@Override
+		public void invalidate()
+		{
+			initialized = false;
+		}
+	}
+
+	/**
+	 * Concurrent (Thread safe) variant of {@link PlainLazyInt}.
+	 * <br>
+	 * The value is published before it is marked loaded, and never cleared by {@link #invalidate()},
+	 * so a reader racing an invalidation observes either the old or the new value.
+	 *
+	 * @see LazyInt
+	 * @see PlainLazyInt
+	 * @see IntSupplier
+	 */
+	final class ConcurrentLazyInt extends ConcurrentPrimitiveLazy implements LazyInt
+	{
+		private final IntSupplier supplier;
+		private volatile int instance = 0;
+
+		private ConcurrentLazyInt(IntSupplier supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyInt#getAsInt()
+		 */
+		@Override
+		public int getAsInt()
+		{
+			if(!isLoaded())
+				load();
+
+			return instance;
+		}
+
+		@Override
+		void store()
+		{
+			instance = supplier.getAsInt();
+		}
+	}
+}
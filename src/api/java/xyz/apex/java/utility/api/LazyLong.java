@@ -0,0 +1,144 @@
+package xyz.apex.java.utility.api;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A primitive long specialization of {@link Lazy},
+ * which caches the value received from {@link #getAsLong()}
+ * and returns this same value until the lazy is invalidated using {@link #invalidate()}.
+ * <br>
+ * Values are never boxed, neither when loaded nor when read.
+ *
+ * @see Lazy
+ * @see LongSupplier
+ */
+public interface LazyLong extends LongSupplier
+{
+	/**
+	 * Attempt to retrieve and cache value to be lazily returned later.
+	 *
+	 * @return Lazily obtained value from {@link LongSupplier}.
+	 * @see LongSupplier#getAsLong()
+	 */
+	@Override long getAsLong();
+
+	/**
+	 * Invalidates the {@link LazyLong} object.
+	 * Future calls to {@link #getAsLong()} will try to retrieve and cache the value again.
+	 */
+	void invalidate();
+
+	/**
+	 * Creates a new {@link LazyLong} object.
+	 *
+	 * @param supplier The backing {@link LongSupplier} used to retrieve values from.
+	 * @param concurrent Whether this {@link LazyLong} should be concurrent or not (Thread safe).
+	 * @see LongSupplier
+	 * @return A new {@link LazyLong}.
+	 */
+	static LazyLong of(LongSupplier supplier, boolean concurrent)
+	{
+		return concurrent ? new ConcurrentLazyLong(supplier) : new PlainLazyLong(supplier);
+	}
+
+	/**
+	 * Creates a new {@link LazyLong} object.
+	 * (This {@link LazyLong} is not concurrent / thread safe).
+	 *
+	 * @param supplier The backing {@link LongSupplier} used to retrieve values from.
+	 * @see LongSupplier
+	 * @see #of(LongSupplier, boolean)
+	 * @return A new {@link LazyLong}.
+	 */
+	static LazyLong of(LongSupplier supplier)
+	{
+		return of(supplier, false);
+	}
+
+	/**
+	 * A non concurrent {@link LazyLong}.
+	 *
+	 * @see LazyLong
+	 * @see LongSupplier
+	 */
+	final class PlainLazyLong implements LazyLong
+	{
+		private final LongSupplier supplier;
+		private long instance = 0L;
+		private boolean initialized = false;
+
+		private PlainLazyLong(LongSupplier supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyLong#getAsLong()
+		 */
+		@Override
+		public long getAsLong()
+		{
+			if(!initialized)
+			{
+				instance = supplier.getAsLong();
+				initialized = true;
+			}
+
+			return instance;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyLong#invalidate()
+		 */
+		@Override
+		public void invalidate()
+		{
+			initialized = false;
+		}
+	}
+
+	/**
+	 * Concurrent (Thread safe) variant of {@link PlainLazyLong}.
+	 * <br>
+	 * The value is published before it is marked loaded, and never cleared by {@link #invalidate()},
+	 * so a reader racing an invalidation observes either the old or the new value.
+	 *
+	 * @see LazyLong
+	 * @see PlainLazyLong
+	 * @see LongSupplier
+	 */
+	final class ConcurrentLazyLong extends ConcurrentPrimitiveLazy implements LazyLong
+	{
+		private final LongSupplier supplier;
+		private volatile long instance = 0L;
+
+		private ConcurrentLazyLong(LongSupplier supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * @see LazyLong#getAsLong()
+		 */
+		@Override
+		public long getAsLong()
+		{
+			if(!isLoaded())
+				load();
+
+			return instance;
+		}
+
+		@Override
+		void store()
+		{
+			instance = supplier.getAsLong();
+		}
+	}
+}
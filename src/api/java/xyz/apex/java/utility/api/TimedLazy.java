@@ -0,0 +1,56 @@
+package xyz.apex.java.utility.api;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A concurrent (Thread safe) {@link Lazy} whose callers can bound how long they wait for a value loaded by another thread.
+ * <br>
+ * Giving up waiting never cancels the in-flight load, which continues and is cached for future callers.
+ * A caller which itself starts the load runs the supplier to completion, the timeout only bounds waiting on other threads.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ */
+public interface TimedLazy<T> extends Lazy<T>
+{
+	/**
+	 * Attempt to retrieve and cache value to be lazily returned later,
+	 * waiting at most the given timeout for a load in flight on another thread.
+	 *
+	 * @param timeout The maximum time to wait for a load in flight on another thread.
+	 * @return Lazily obtained value.
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 * @throws TimeoutException if the wait timed out
+	 * @see #get()
+	 */
+	T get(Duration timeout) throws InterruptedException, TimeoutException;
+
+	/**
+	 * Attempt to retrieve and cache value to be lazily returned later,
+	 * returning the given fallback if a load in flight on another thread does not complete within the given timeout.
+	 * <br>
+	 * If the current thread is interrupted while waiting, the fallback is returned and the interrupt status is restored.
+	 *
+	 * @param timeout The maximum time to wait for a load in flight on another thread.
+	 * @param fallback Value to be returned if the wait timed out.
+	 * @return Lazily obtained value or the given fallback.
+	 * @see #get(Duration)
+	 */
+	default T getOrDefault(Duration timeout, T fallback)
+	{
+		try
+		{
+			return get(timeout);
+		}
+		catch(TimeoutException e)
+		{
+			return fallback;
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return fallback;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package xyz.apex.java.utility.api.function;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open addressing hash table keyed on up to four arguments, compared component wise, backing the {@link Memoizers}.
+ * <br>
+ * Arguments are stored inline in a flat array, so looking up a set of arguments never allocates a key object.
+ * Lookups are lock-free optimistic reads, falling back to a read lock only when racing a write.
+ * Bounded tables evict using the CLOCK (second chance) approximation of LRU.
+ */
+final class MemoTable
+{
+	// returned by lookups which found no entry, results are never this object
+	static final Object MISSING = new Object();
+	// marks a memoized null result, a null value slot is empty
+	private static final Object NULL = new Object();
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int arity;
+	private final int maximumSize;
+	private final StampedLock lock = new StampedLock();
+	private volatile Slots slots;
+
+	// guarded by the write lock
+	private int size = 0;
+	private int hand = 0;
+
+	MemoTable(int arity, int maximumSize)
+	{
+		this.arity = arity;
+		this.maximumSize = maximumSize;
+
+		slots = new Slots(INITIAL_CAPACITY, arity);
+	}
+
+	@Nullable
+	Object get(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d)
+	{
+		int hash = hash(a, b, c, d);
+		long stamp = lock.tryOptimisticRead();
+
+		if(stamp != 0L)
+		{
+			Object result = find(slots, hash, a, b, c, d);
+
+			if(lock.validate(stamp))
+				return result;
+		}
+
+		stamp = lock.readLock();
+
+		try
+		{
+			return find(slots, hash, a, b, c, d);
+		}
+		finally
+		{
+			lock.unlockRead(stamp);
+		}
+	}
+
+	void put(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d, @Nullable Object value)
+	{
+		int hash = hash(a, b, c, d);
+		long stamp = lock.writeLock();
+
+		try
+		{
+			// another thread computed the same arguments concurrently
+			if(find(slots, hash, a, b, c, d) != MISSING)
+				return;
+
+			if(maximumSize > 0 && size >= maximumSize)
+				evict();
+			if((size + 1) * 4 > slots.capacity() * 3)
+				slots = resize(slots);
+
+			insert(slots, hash, a, b, c, d, value == null ? NULL : value);
+			size++;
+		}
+		finally
+		{
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Nullable
+	private Object find(Slots slots, int hash, @Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d)
+	{
+		int mask = slots.mask;
+		int index = hash & mask;
+
+		// bounded by the capacity, as an optimistic read may observe a table mid-write
+		for(int probe = 0; probe <= mask; probe++)
+		{
+			Object value = slots.values[index];
+
+			if(value == null)
+				return MISSING;
+
+			if(slots.hashes[index] == hash && matches(slots, index, a, b, c, d))
+			{
+				slots.referenced[index] = true;
+				return value == NULL ? null : value;
+			}
+
+			index = (index + 1) & mask;
+		}
+
+		return MISSING;
+	}
+
+	private boolean matches(Slots slots, int index, @Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d)
+	{
+		Object[] keys = slots.keys;
+		int base = index * arity;
+
+		if(!Objects.equals(keys[base], a) || !Objects.equals(keys[base + 1], b))
+			return false;
+		if(arity > 2 && !Objects.equals(keys[base + 2], c))
+			return false;
+
+		return arity <= 3 || Objects.equals(keys[base + 3], d);
+	}
+
+	private void insert(Slots slots, int hash, @Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d, Object value)
+	{
+		int index = hash & slots.mask;
+
+		while(slots.values[index] != null)
+		{
+			index = (index + 1) & slots.mask;
+		}
+
+		int base = index * arity;
+		slots.keys[base] = a;
+		slots.keys[base + 1] = b;
+
+		if(arity > 2)
+			slots.keys[base + 2] = c;
+		if(arity > 3)
+			slots.keys[base + 3] = d;
+
+		slots.hashes[index] = hash;
+		slots.referenced[index] = false;
+		slots.values[index] = value;
+	}
+
+	private Slots resize(Slots old)
+	{
+		Slots resized = new Slots(old.capacity() * 2, arity);
+
+		for(int i = 0; i < old.capacity(); i++)
+		{
+			Object value = old.values[i];
+
+			if(value == null)
+				continue;
+
+			int base = i * arity;
+			insert(resized, old.hashes[i], old.keys[base], old.keys[base + 1], arity > 2 ? old.keys[base + 2] : null, arity > 3 ? old.keys[base + 3] : null, value);
+		}
+
+		return resized;
+	}
+
+	private void evict()
+	{
+		Slots slots = this.slots;
+
+		for(;;)
+		{
+			int index = hand;
+			hand = (hand + 1) & slots.mask;
+
+			if(slots.values[index] == null)
+				continue;
+
+			// recently used entries get a second chance
+			if(slots.referenced[index])
+			{
+				slots.referenced[index] = false;
+				continue;
+			}
+
+			delete(slots, index);
+			size--;
+			return;
+		}
+	}
+
+	// backward shift deletion, keeps every probe sequence free of gaps without tombstones
+	private void delete(Slots slots, int index)
+	{
+		int mask = slots.mask;
+		int hole = index;
+		int next = index;
+
+		for(;;)
+		{
+			next = (next + 1) & mask;
+
+			if(slots.values[next] == null)
+				break;
+
+			int home = slots.hashes[next] & mask;
+
+			// entries whose home lies cyclically within (hole, next] must stay where they are
+			if(hole <= next ? hole < home && home <= next : hole < home || home <= next)
+				continue;
+
+			System.arraycopy(slots.keys, next * arity, slots.keys, hole * arity, arity);
+			slots.hashes[hole] = slots.hashes[next];
+			slots.referenced[hole] = slots.referenced[next];
+			slots.values[hole] = slots.values[next];
+			hole = next;
+		}
+
+		for(int i = 0; i < arity; i++)
+		{
+			slots.keys[hole * arity + i] = null;
+		}
+
+		slots.values[hole] = null;
+	}
+
+	private int hash(@Nullable Object a, @Nullable Object b, @Nullable Object c, @Nullable Object d)
+	{
+		int hash = Objects.hashCode(a) * 31 + Objects.hashCode(b);
+
+		if(arity > 2)
+			hash = hash * 31 + Objects.hashCode(c);
+		if(arity > 3)
+			hash = hash * 31 + Objects.hashCode(d);
+
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		return hash ^ (hash >>> 13);
+	}
+
+	private static final class Slots
+	{
+		private final int mask;
+		private final int[] hashes;
+		private final Object[] keys;
+		private final Object[] values;
+		private final boolean[] referenced;
+
+		private Slots(int capacity, int arity)
+		{
+			mask = capacity - 1;
+			hashes = new int[capacity];
+			keys = new Object[capacity * arity];
+			values = new Object[capacity];
+			referenced = new boolean[capacity];
+		}
+
+		private int capacity()
+		{
+			return mask + 1;
+		}
+	}
+}
@@ -0,0 +1,297 @@
+package xyz.apex.java.utility.api.function;
+
+import xyz.apex.java.utility.api.nullness.NotNullBiFunction;
+import xyz.apex.java.utility.api.nullness.NotNullQuadFunction;
+import xyz.apex.java.utility.api.nullness.NotNullTriFunction;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+import xyz.apex.java.utility.api.nullness.NullableBiFunction;
+import xyz.apex.java.utility.api.nullness.NullableQuadFunction;
+import xyz.apex.java.utility.api.nullness.NullableTriFunction;
+import xyz.apex.java.utility.api.nullness.NullableType;
+
+/**
+ * Memoizing wrappers for functions of two, three and four arguments.
+ * <br>
+ * Results are cached in an open addressing table comparing arguments component wise,
+ * so a cache hit never allocates a key object such as a {@code Triple} or {@code Quad}.
+ * Memoized functions are concurrent (Thread safe), concurrent calls with the same uncached arguments may each call the function,
+ * after which a single result is retained.
+ * Unbounded memoizers retain every result, bounded memoizers evict least recently used results approximately.
+ */
+public final class Memoizers
+{
+	/**
+	 * Returns an unbounded memoizing wrapper of the given function.
+	 *
+	 * @param function the function to be memoized
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 */
+	public static <@NotNullType A, @NotNullType B, @NotNullType R> NotNullBiFunction<A, B, R> memoize(NotNullBiFunction<A, B, R> function)
+	{
+		return memoize(function, 0);
+	}
+
+	/**
+	 * Returns a memoizing wrapper of the given function retaining at most the given number of results.
+	 *
+	 * @param function the function to be memoized
+	 * @param maximumSize the maximum number of retained results, or 0 for no bound
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 * @throws IllegalArgumentException if the size is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public static <@NotNullType A, @NotNullType B, @NotNullType R> NotNullBiFunction<A, B, R> memoize(NotNullBiFunction<A, B, R> function, int maximumSize)
+	{
+		MemoTable table = table(2, maximumSize);
+
+		return (a, b) -> {
+			Object cached = table.get(a, b, null, null);
+
+			if(cached != MemoTable.MISSING)
+				return (R) cached;
+
+			R result = function.apply(a, b);
+			table.put(a, b, null, null, result);
+			return result;
+		};
+	}
+
+	/**
+	 * Returns an unbounded memoizing wrapper of the given function.
+	 *
+	 * @param function the function to be memoized
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <C> the type of the third argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 */
+	public static <@NotNullType A, @NotNullType B, @NotNullType C, @NotNullType R> NotNullTriFunction<A, B, C, R> memoize(NotNullTriFunction<A, B, C, R> function)
+	{
+		return memoize(function, 0);
+	}
+
+	/**
+	 * Returns a memoizing wrapper of the given function retaining at most the given number of results.
+	 *
+	 * @param function the function to be memoized
+	 * @param maximumSize the maximum number of retained results, or 0 for no bound
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <C> the type of the third argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 * @throws IllegalArgumentException if the size is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public static <@NotNullType A, @NotNullType B, @NotNullType C, @NotNullType R> NotNullTriFunction<A, B, C, R> memoize(NotNullTriFunction<A, B, C, R> function, int maximumSize)
+	{
+		MemoTable table = table(3, maximumSize);
+
+		return (a, b, c) -> {
+			Object cached = table.get(a, b, c, null);
+
+			if(cached != MemoTable.MISSING)
+				return (R) cached;
+
+			R result = function.apply(a, b, c);
+			table.put(a, b, c, null, result);
+			return result;
+		};
+	}
+
+	/**
+	 * Returns an unbounded memoizing wrapper of the given function.
+	 *
+	 * @param function the function to be memoized
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <C> the type of the third argument to the function
+	 * @param <D> the type of the fourth argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 */
+	public static <@NotNullType A, @NotNullType B, @NotNullType C, @NotNullType D, @NotNullType R> NotNullQuadFunction<A, B, C, D, R> memoize(NotNullQuadFunction<A, B, C, D, R> function)
+	{
+		return memoize(function, 0);
+	}
+
+	/**
+	 * Returns a memoizing wrapper of the given function retaining at most the given number of results.
+	 *
+	 * @param function the function to be memoized
+	 * @param maximumSize the maximum number of retained results, or 0 for no bound
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <C> the type of the third argument to the function
+	 * @param <D> the type of the fourth argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 * @throws IllegalArgumentException if the size is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public static <@NotNullType A, @NotNullType B, @NotNullType C, @NotNullType D, @NotNullType R> NotNullQuadFunction<A, B, C, D, R> memoize(NotNullQuadFunction<A, B, C, D, R> function, int maximumSize)
+	{
+		MemoTable table = table(4, maximumSize);
+
+		return (a, b, c, d) -> {
+			Object cached = table.get(a, b, c, d);
+
+			if(cached != MemoTable.MISSING)
+				return (R) cached;
+
+			R result = function.apply(a, b, c, d);
+			table.put(a, b, c, d, result);
+			return result;
+		};
+	}
+
+	/**
+	 * Returns an unbounded memoizing wrapper of the given function, null arguments and results are memoized too.
+	 *
+	 * @param function the function to be memoized
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 */
+	public static <@NullableType A, @NullableType B, @NullableType R> NullableBiFunction<A, B, R> memoizeNullable(NullableBiFunction<A, B, R> function)
+	{
+		return memoizeNullable(function, 0);
+	}
+
+	/**
+	 * Returns a memoizing wrapper of the given function retaining at most the given number of results,
+	 * null arguments and results are memoized too.
+	 *
+	 * @param function the function to be memoized
+	 * @param maximumSize the maximum number of retained results, or 0 for no bound
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 * @throws IllegalArgumentException if the size is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public static <@NullableType A, @NullableType B, @NullableType R> NullableBiFunction<A, B, R> memoizeNullable(NullableBiFunction<A, B, R> function, int maximumSize)
+	{
+		MemoTable table = table(2, maximumSize);
+
+		return (a, b) -> {
+			Object cached = table.get(a, b, null, null);
+
+			if(cached != MemoTable.MISSING)
+				return (R) cached;
+
+			R result = function.apply(a, b);
+			table.put(a, b, null, null, result);
+			return result;
+		};
+	}
+
+	/**
+	 * Returns an unbounded memoizing wrapper of the given function, null arguments and results are memoized too.
+	 *
+	 * @param function the function to be memoized
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <C> the type of the third argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 */
+	public static <@NullableType A, @NullableType B, @NullableType C, @NullableType R> NullableTriFunction<A, B, C, R> memoizeNullable(NullableTriFunction<A, B, C, R> function)
+	{
+		return memoizeNullable(function, 0);
+	}
+
+	/**
+	 * Returns a memoizing wrapper of the given function retaining at most the given number of results,
+	 * null arguments and results are memoized too.
+	 *
+	 * @param function the function to be memoized
+	 * @param maximumSize the maximum number of retained results, or 0 for no bound
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <C> the type of the third argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 * @throws IllegalArgumentException if the size is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public static <@NullableType A, @NullableType B, @NullableType C, @NullableType R> NullableTriFunction<A, B, C, R> memoizeNullable(NullableTriFunction<A, B, C, R> function, int maximumSize)
+	{
+		MemoTable table = table(3, maximumSize);
+
+		return (a, b, c) -> {
+			Object cached = table.get(a, b, c, null);
+
+			if(cached != MemoTable.MISSING)
+				return (R) cached;
+
+			R result = function.apply(a, b, c);
+			table.put(a, b, c, null, result);
+			return result;
+		};
+	}
+
+	/**
+	 * Returns an unbounded memoizing wrapper of the given function, null arguments and results are memoized too.
+	 *
+	 * @param function the function to be memoized
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <C> the type of the third argument to the function
+	 * @param <D> the type of the fourth argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 */
+	public static <@NullableType A, @NullableType B, @NullableType C, @NullableType D, @NullableType R> NullableQuadFunction<A, B, C, D, R> memoizeNullable(NullableQuadFunction<A, B, C, D, R> function)
+	{
+		return memoizeNullable(function, 0);
+	}
+
+	/**
+	 * Returns a memoizing wrapper of the given function retaining at most the given number of results,
+	 * null arguments and results are memoized too.
+	 *
+	 * @param function the function to be memoized
+	 * @param maximumSize the maximum number of retained results, or 0 for no bound
+	 * @param <A> the type of the first argument to the function
+	 * @param <B> the type of the second argument to the function
+	 * @param <C> the type of the third argument to the function
+	 * @param <D> the type of the fourth argument to the function
+	 * @param <R> the type of the result of the function
+	 * @return a memoizing wrapper of the given function
+	 * @throws IllegalArgumentException if the size is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public static <@NullableType A, @NullableType B, @NullableType C, @NullableType D, @NullableType R> NullableQuadFunction<A, B, C, D, R> memoizeNullable(NullableQuadFunction<A, B, C, D, R> function, int maximumSize)
+	{
+		MemoTable table = table(4, maximumSize);
+
+		return (a, b, c, d) -> {
+			Object cached = table.get(a, b, c, d);
+
+			if(cached != MemoTable.MISSING)
+				return (R) cached;
+
+			R result = function.apply(a, b, c, d);
+			table.put(a, b, c, d, result);
+			return result;
+		};
+	}
+
+	private static MemoTable table(int arity, int maximumSize)
+	{
+		if(maximumSize < 0)
+			throw new IllegalArgumentException("Maximum size must not be negative: " + maximumSize);
+
+		return new MemoTable(arity, maximumSize);
+	}
+}
@@ -0,0 +1,246 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+import xyz.apex.java.utility.api.nullness.NullableSupplier;
+import xyz.apex.java.utility.api.nullness.NullableType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent (Thread safe) {@link Lazy} whose value is loaded asynchronously.
+ * <br>
+ * {@link #get()} never blocks, it returns a {@link CompletableFuture} which is completed once the backing supplier,
+ * started at most once on the configured {@link Executor}, finishes.
+ * Every caller receives its own copy of the shared load, so cancelling or completing a returned future affects no other caller.
+ * <br>
+ * If the supplier fails the future is completed exceptionally and the next call to {@link #get()} starts a new load.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see CompletableFuture
+ */
+public final class AsyncLazy<T> implements Lazy<CompletableFuture<T>>
+{
+	private static final VarHandle FUTURE;
+	private static final Lazy<Executor> DEFAULT_EXECUTOR = Lazy.ofAtomic(AsyncLazy::createDefaultExecutor);
+
+	static
+	{
+		try
+		{
+			FUTURE = MethodHandles.lookup().findVarHandle(AsyncLazy.class, "future", CompletableFuture.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Supplier<T> supplier;
+	private final boolean nullable;
+	private final Executor executor;
+	@Nullable private volatile CompletableFuture<T> future = null;
+
+	private AsyncLazy(Supplier<T> supplier, boolean nullable, Executor executor)
+	{
+		this.supplier = supplier;
+		this.nullable = nullable;
+		this.executor = executor;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Starts loading the value if no load is in flight or completed, this method never blocks.
+	 *
+	 * @return New {@link CompletableFuture} completed with the lazily loaded value.
+	 * @see Lazy#get()
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public CompletableFuture<T> get()
+	{
+		CompletableFuture<T> current = (CompletableFuture<T>) FUTURE.getAcquire(this);
+
+		if(current != null)
+			return current.copy();
+
+		CompletableFuture<T> created = new CompletableFuture<>();
+		CompletableFuture<T> witness = (CompletableFuture<T>) FUTURE.compareAndExchange(this, null, created);
+
+		if(witness != null)
+			return witness.copy();
+
+		// forget any failed load so the next caller retries, however it came to fail
+		created.whenComplete((value, t) -> {
+			if(t != null)
+				FUTURE.compareAndSet(this, created, null);
+		});
+
+		try
+		{
+			executor.execute(() -> load(created));
+		}
+		catch(Throwable t)
+		{
+			fail(created, t);
+		}
+
+		return created.copy();
+	}
+
+	/**
+	 * Returns the loaded value if it is available, otherwise starts loading the value and returns the given fallback.
+	 * <br>
+	 * This method never blocks.
+	 *
+	 * @param fallback Value to be returned if the value is not yet available.
+	 * @return The loaded value or the given fallback.
+	 */
+	@Nullable
+	public T getNow(@Nullable T fallback)
+	{
+		CompletableFuture<T> current = get();
+		return current.isDone() && !current.isCompletedExceptionally() ? current.join() : fallback;
+	}
+
+	/**
+	 * Returns whether the value has been loaded successfully and is available without blocking.
+	 *
+	 * @return Whether the value has been loaded successfully.
+	 */
+	public boolean isLoaded()
+	{
+		CompletableFuture<T> current = future;
+		return current != null && current.isDone() && !current.isCompletedExceptionally();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Futures already returned from {@link #get()} are still completed by their load,
+	 * but that value is not cached for future calls.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	@Override
+	public void invalidate()
+	{
+		future = null;
+	}
+
+	private void load(CompletableFuture<T> target)
+	{
+		try
+		{
+			T value = supplier.get();
+
+			if(!nullable)
+				Objects.requireNonNull(value, "Unexpected null value from supplier");
+
+			target.complete(value);
+		}
+		catch(Throwable t)
+		{
+			fail(target, t);
+		}
+	}
+
+	private void fail(CompletableFuture<T> target, Throwable t)
+	{
+		// forgotten before completing too, so callers reacting to the failure already retry
+		FUTURE.compareAndSet(this, target, null);
+		target.completeExceptionally(t);
+	}
+
+	/**
+	 * Creates a new {@link AsyncLazy} whose resulting objects must never be null,
+	 * loading values on the default {@link Executor}.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link AsyncLazy}.
+	 * @see #defaultExecutor()
+	 */
+	public static <@NotNullType T> AsyncLazy<T> of(NotNullSupplier<T> supplier)
+	{
+		return of(supplier, defaultExecutor());
+	}
+
+	/**
+	 * Creates a new {@link AsyncLazy} whose resulting objects must never be null.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param executor The {@link Executor} the supplier is run on.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link AsyncLazy}.
+	 */
+	public static <@NotNullType T> AsyncLazy<T> of(NotNullSupplier<T> supplier, Executor executor)
+	{
+		return new AsyncLazy<>(supplier, false, executor);
+	}
+
+	/**
+	 * Creates a new {@link AsyncLazy} that allows null values,
+	 * loading values on the default {@link Executor}.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link AsyncLazy}.
+	 * @see #defaultExecutor()
+	 */
+	public static <@NullableType T> AsyncLazy<T> ofNullable(NullableSupplier<T> supplier)
+	{
+		return ofNullable(supplier, defaultExecutor());
+	}
+
+	/**
+	 * Creates a new {@link AsyncLazy} that allows null values.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param executor The {@link Executor} the supplier is run on.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link AsyncLazy}.
+	 */
+	public static <@NullableType T> AsyncLazy<T> ofNullable(NullableSupplier<T> supplier, Executor executor)
+	{
+		return new AsyncLazy<>(supplier, true, executor);
+	}
+
+	/**
+	 * Returns the default {@link Executor} used to load values.
+	 * <br>
+	 * This is a virtual thread per task executor when running on a runtime which supports virtual threads,
+	 * otherwise {@link ForkJoinPool#commonPool()}.
+	 *
+	 * @return The default {@link Executor} used to load values.
+	 */
+	public static Executor defaultExecutor()
+	{
+		return DEFAULT_EXECUTOR.get();
+	}
+
+	private static Executor createDefaultExecutor()
+	{
+		try
+		{
+			// looked up reflectively as this project targets a release without virtual threads
+			return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			return ForkJoinPool.commonPool();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,349 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.TimedLazy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Base implementation for the lock-free concurrent {@link Lazy} variants.
+ * <br>
+ * All state is held in a single published state object, the steady state read
+ * is one acquire load of that object, transitioning from uninitialized to loading is done using CAS.
+ * <br>
+ * Every value is stamped with a generation, which is bumped by each call to {@link #invalidate()}.
+ * Exactly one thread runs the supplier for each generation, all other threads either wait for that result
+ * or, when serving stale values, receive the previous generations value without blocking.
+ * <br>
+ * Loads may optionally be given a deadline, a load exceeding its deadline is abandoned by the next waiting thread,
+ * leaving the {@link Lazy} uninitialized so a new load can be started.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see AtomicNotNullLazy
+ * @see AtomicNullableLazy
+ */
+abstract class AtomicLazy<T> implements TimedLazy<T>
+{
+	private static final VarHandle STATE;
+	// returned from timed waits which timed out
+	private static final Object TIMED_OUT = new Object();
+	// completes loads which exceeded their deadline, waiters retry rather than receive this
+	private static final Object ABANDONED = new Object();
+
+	static
+	{
+		try
+		{
+			STATE = MethodHandles.lookup().findVarHandle(AtomicLazy.class, "state", Object.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Supplier<T> supplier;
+	private final boolean serveStale;
+	private final long loadDeadlineNanos;
+	// null (uninitialized, generation 0), Value, Stale or Loading
+	@Nullable private volatile Object state = null;
+
+	AtomicLazy(Supplier<T> supplier, boolean serveStale, long loadDeadlineNanos)
+	{
+		this.supplier = supplier;
+		this.serveStale = serveStale;
+		this.loadDeadlineNanos = loadDeadlineNanos;
+	}
+
+	/**
+	 * Converts a load deadline to nanoseconds, rejecting deadlines which could never be met.
+	 *
+	 * @param loadDeadline The maximum time a single load may take before it is abandoned.
+	 * @return The load deadline in nanoseconds.
+	 * @throws IllegalArgumentException if the deadline is zero or negative
+	 */
+	static long loadDeadlineNanos(Duration loadDeadline)
+	{
+		if(loadDeadline.isZero() || loadDeadline.isNegative())
+			throw new IllegalArgumentException("Load deadline must be positive: " + loadDeadline);
+
+		return loadDeadline.toNanos();
+	}
+
+	/**
+	 * Validates the value returned from the backing supplier before it is published.
+	 *
+	 * @param value Value returned from the backing supplier.
+	 * @return The value to be published.
+	 */
+	@Nullable
+	abstract T check(@Nullable T value);
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see Lazy#get()
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	@Override
+	public T get()
+	{
+		if(STATE.getAcquire(this) instanceof Value<?> value)
+			return (T) value.value;
+
+		try
+		{
+			return (T) getSlow(false, 0L);
+		}
+		catch(InterruptedException e)
+		{
+			// untimed waits defer interrupts, this can not happen
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see TimedLazy#get(Duration)
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	@Override
+	public T get(Duration timeout) throws InterruptedException, TimeoutException
+	{
+		if(STATE.getAcquire(this) instanceof Value<?> value)
+			return (T) value.value;
+
+		Object result = getSlow(true, System.nanoTime() + timeout.toNanos());
+
+		if(result == TIMED_OUT)
+			throw new TimeoutException("Timed out waiting for Lazy to load");
+
+		return (T) result;
+	}
+
+	@Nullable
+	private Object getSlow(boolean timed, long waitUntil) throws InterruptedException
+	{
+		boolean interrupted = false;
+
+		try
+		{
+			for(;;)
+			{
+				Object current = STATE.getAcquire(this);
+				long generation = 0L;
+				@Nullable Value<?> previous = null;
+
+				if(current instanceof Value<?> value)
+					return value.value;
+				else if(current instanceof Loading loading)
+				{
+					if(serveStale && loading.previous != null)
+						return loading.previous.value;
+					if(loading.load.isOwner())
+						throw new IllegalStateException("Recursive initialization of Lazy");
+
+					long now = System.nanoTime();
+					long wait = Long.MAX_VALUE;
+
+					if(loadDeadlineNanos > 0L)
+					{
+						if(now - loading.deadline >= 0L)
+						{
+							abandon(loading);
+							continue;
+						}
+
+						wait = loading.deadline - now;
+					}
+
+					if(timed)
+					{
+						if(waitUntil - now <= 0L)
+							return TIMED_OUT;
+
+						wait = Math.min(wait, waitUntil - now);
+					}
+
+					try
+					{
+						Object result = loading.await(wait);
+
+						if(result != ABANDONED)
+							return result;
+					}
+					catch(TimeoutException e)
+					{
+						// loop around, either our wait timed out or the load exceeded its deadline
+					}
+					catch(InterruptedException e)
+					{
+						if(timed)
+							throw e;
+
+						interrupted = true;
+					}
+
+					continue;
+				}
+				else if(current instanceof Stale stale)
+				{
+					generation = stale.generation;
+					previous = stale.previous;
+				}
+
+				Loading loading = new Loading(generation, previous, System.nanoTime() + loadDeadlineNanos);
+
+				if(STATE.compareAndSet(this, current, loading))
+					return load(loading);
+			}
+		}
+		finally
+		{
+			if(interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	private void abandon(Loading loading)
+	{
+		// the loading thread keeps running, but its result will no longer be published
+		if(STATE.compareAndSet(this, loading, new Stale(loading.generation, loading.previous)))
+			loading.load.complete(ABANDONED);
+	}
+
+	@Nullable
+	private T load(Loading loading)
+	{
+		try
+		{
+			T value = check(supplier.get());
+			// a failed CAS means we were invalidated mid load, hand the result to waiters but do not cache it
+			STATE.compareAndSet(this, loading, new Value<>(value, loading.generation));
+			loading.load.complete(value);
+			return value;
+		}
+		catch(Throwable t)
+		{
+			STATE.compareAndSet(this, loading, new Stale(loading.generation, loading.previous));
+			loading.load.fail(t);
+			throw t;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Bumps the generation of this {@link Lazy}, the next call to {@link #get()} reloads the value.
+	 * A load already in flight is not cached once it completes.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	@Override
+	public void invalidate()
+	{
+		for(;;)
+		{
+			Object current = STATE.getAcquire(this);
+			Object next;
+
+			if(current instanceof Value<?> value)
+				next = new Stale(value.generation + 1L, serveStale ? value : null);
+			else if(current instanceof Loading loading)
+				next = new Stale(loading.generation + 1L, loading.previous);
+			else
+				return;
+
+			if(STATE.compareAndSet(this, current, next))
+				return;
+		}
+	}
+
+	/**
+	 * Returns the current generation of this {@link Lazy}.
+	 * <br>
+	 * The generation starts at {@code 0} and is incremented by every call to {@link #invalidate()}
+	 * that invalidated a loaded or loading value.
+	 *
+	 * @return The current generation of this {@link Lazy}.
+	 */
+	public long generation()
+	{
+		Object current = STATE.getAcquire(this);
+
+		if(current instanceof Value<?> value)
+			return value.generation;
+		else if(current instanceof Stale stale)
+			return stale.generation;
+		else if(current instanceof Loading loading)
+			return loading.generation;
+
+		return 0L;
+	}
+
+	/**
+	 * Returns the published value without loading or waiting for a load.
+	 *
+	 * @param absent Object returned if no value is published.
+	 * @return The published value or the given object if no value is published.
+	 */
+	@Nullable
+	Object peek(@Nullable Object absent)
+	{
+		return STATE.getAcquire(this) instanceof Value<?> value ? value.value : absent;
+	}
+
+	private static final class Value<T>
+	{
+		@Nullable private final T value;
+		private final long generation;
+
+		private Value(@Nullable T value, long generation)
+		{
+			this.value = value;
+			this.generation = generation;
+		}
+	}
+
+	private static final class Stale
+	{
+		private final long generation;
+		@Nullable private final Value<?> previous;
+
+		private Stale(long generation, @Nullable Value<?> previous)
+		{
+			this.generation = generation;
+			this.previous = previous;
+		}
+	}
+
+	private static final class Loading
+	{
+		private final long generation;
+		@Nullable private final Value<?> previous;
+		private final long deadline;
+		private final InFlightLoad load = new InFlightLoad();
+
+		private Loading(long generation, @Nullable Value<?> previous, long deadline)
+		{
+			this.generation = generation;
+			this.previous = previous;
+			this.deadline = deadline;
+		}
+
+		@Nullable
+		private Object await(long nanos) throws InterruptedException, TimeoutException
+		{
+			return nanos == Long.MAX_VALUE ? load.await() : load.await(nanos);
+		}
+	}
+}
\ No newline at end of file
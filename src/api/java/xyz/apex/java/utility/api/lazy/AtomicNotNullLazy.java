@@ -0,0 +1,56 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free concurrent (Thread safe) variant of {@link Lazy.NotNullLazy}.
+ * <br>
+ * Once initialized, {@link #get()} is a single acquire load of the published value.
+ * Waiting for a load on another thread can be bounded using {@link #get(Duration)}.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see Lazy#ofAtomic(NotNullSupplier, boolean)
+ * @see Lazy#ofAtomic(NotNullSupplier, boolean, Duration)
+ * @see Supplier
+ * @see NotNullSupplier
+ */
+public final class AtomicNotNullLazy<T> extends AtomicLazy<T> implements NotNullSupplier<T>
+{
+	@ApiStatus.Internal
+	public AtomicNotNullLazy(NotNullSupplier<T> supplier, boolean serveStale)
+	{
+		super(supplier, serveStale, 0L);
+	}
+
+	@ApiStatus.Internal
+	public AtomicNotNullLazy(NotNullSupplier<T> supplier, boolean serveStale, Duration loadDeadline)
+	{
+		super(supplier, serveStale, loadDeadlineNanos(loadDeadline));
+	}
+
+	@Override
+	T check(@Nullable T value)
+	{
+		return Objects.requireNonNull(value, "Unexpected null value from supplier");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see Lazy#get()
+	 */
+	@Override
+	public T get()
+	{
+		return Objects.requireNonNull(super.get());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NullableSupplier;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free concurrent (Thread safe) variant of {@link Lazy.NullableLazy}.
+ * <br>
+ * Once initialized, {@link #get()} is a single acquire load of the published value.
+ * Waiting for a load on another thread can be bounded using {@link #get(Duration)}.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see Lazy#ofNullableAtomic(NullableSupplier, boolean)
+ * @see Lazy#ofNullableAtomic(NullableSupplier, boolean, Duration)
+ * @see Supplier
+ * @see NullableSupplier
+ */
+public final class AtomicNullableLazy<T> extends AtomicLazy<T> implements NullableSupplier<T>
+{
+	@ApiStatus.Internal
+	public AtomicNullableLazy(NullableSupplier<T> supplier, boolean serveStale)
+	{
+		super(supplier, serveStale, 0L);
+	}
+
+	@ApiStatus.Internal
+	public AtomicNullableLazy(NullableSupplier<T> supplier, boolean serveStale, Duration loadDeadline)
+	{
+		super(supplier, serveStale, loadDeadlineNanos(loadDeadline));
+	}
+
+	@Nullable
+	@Override
+	T check(@Nullable T value)
+	{
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see Lazy#get()
+	 */
+	@Nullable
+	@Override
+	public T get()
+	{
+		return super.get();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,408 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+import xyz.apex.java.utility.api.nullness.NullableSupplier;
+import xyz.apex.java.utility.api.nullness.NullableType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent (Thread safe) {@link Lazy} which caches failures of its supplier for an exponentially growing backoff period.
+ * <br>
+ * While backing off, callers are handed the cached exception, or optionally the last successfully loaded value,
+ * without the supplier being called, so a failing dependency is retried at most once per backoff period
+ * rather than by every calling thread.
+ * Each consecutive failure multiplies the backoff period, up to a maximum, with random jitter applied to spread out retries.
+ * <br>
+ * Invalidation swaps the state without waiting for a load in flight, whose result or failure is then not cached.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see #builder(NotNullSupplier)
+ * @see #nullableBuilder(NullableSupplier)
+ */
+public final class BackoffLazy<T> implements Lazy<T>
+{
+	// marks a cached null value, a null value field means nothing was loaded
+	private static final Object NULL = new Object();
+	private static final VarHandle STATE;
+
+	static
+	{
+		try
+		{
+			STATE = MethodHandles.lookup().findVarHandle(BackoffLazy.class, "state", State.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Supplier<T> supplier;
+	private final boolean nullable;
+	private final long initialBackoffNanos;
+	private final long maxBackoffNanos;
+	private final double multiplier;
+	private final double jitter;
+	private final boolean serveLastGood;
+	private final LongSupplier ticker;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private volatile State state = State.empty();
+
+	private BackoffLazy(Builder<T> builder)
+	{
+		supplier = builder.supplier;
+		nullable = builder.nullable;
+		initialBackoffNanos = builder.initialBackoffNanos;
+		maxBackoffNanos = builder.maxBackoffNanos;
+		multiplier = builder.multiplier;
+		jitter = builder.jitter;
+		serveLastGood = builder.serveLastGood;
+		ticker = builder.ticker;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * While backing off from a failure, the cached exception is thrown, or the last good value returned if enabled,
+	 * without calling the supplier.
+	 * The caller whose supplier call failed receives the exception as thrown,
+	 * every other caller receives a new {@link IllegalStateException} caused by the cached exception.
+	 *
+	 * @see Lazy#get()
+	 */
+	@Nullable
+	@Override
+	public T get()
+	{
+		State current = state;
+
+		if(current.loaded)
+			return unwrap(current.value);
+		if(isBackingOff(current))
+			return failed(current);
+		if(lock.isHeldByCurrentThread())
+			throw new IllegalStateException("Recursive initialization of Lazy");
+
+		lock.lock();
+
+		try
+		{
+			current = state;
+
+			if(current.loaded)
+				return unwrap(current.value);
+			if(isBackingOff(current))
+				return failed(current);
+			if(current.failure != null)
+				retries.increment();
+
+			T value;
+
+			try
+			{
+				value = supplier.get();
+
+				if(!nullable)
+					Objects.requireNonNull(value, "Unexpected null value from supplier");
+			}
+			catch(RuntimeException e)
+			{
+				failures.increment();
+
+				int consecutiveFailures = current.consecutiveFailures + 1;
+				long retryAt = ticker.getAsLong() + backoffNanos(consecutiveFailures);
+				State failed = new State(serveLastGood ? current.value : null, false, e, retryAt, consecutiveFailures);
+
+				// a failed CAS means we were invalidated mid load, which clears any backoff, so the failure is not cached
+				if(STATE.compareAndSet(this, current, failed) && serveLastGood && failed.value != null)
+					return unwrap(failed.value);
+
+				throw e;
+			}
+
+			// a failed CAS means we were invalidated mid load, hand the result to this caller but do not cache it
+			STATE.compareAndSet(this, current, new State(value == null ? NULL : value, true, null, 0L, 0));
+			return value;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Any backoff in progress is cleared, the next call to {@link #get()} calls the supplier.
+	 * The last good value is retained to be served should that call fail, if enabled.
+	 * Does not wait for a load in flight, whose result or failure is not cached once it completes.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	@Override
+	public void invalidate()
+	{
+		for(;;)
+		{
+			State current = state;
+			// always a new state object, so a load in flight can never publish over it
+			State next = serveLastGood && current.value != null ? new State(current.value, false, null, 0L, 0) : State.empty();
+
+			if(STATE.compareAndSet(this, current, next))
+				return;
+		}
+	}
+
+	/**
+	 * Returns whether this {@link BackoffLazy} is currently backing off from a failure of its supplier.
+	 *
+	 * @return Whether this {@link BackoffLazy} is currently backing off.
+	 */
+	public boolean isBackingOff()
+	{
+		return isBackingOff(state);
+	}
+
+	/**
+	 * Returns the total number of times the supplier has failed.
+	 *
+	 * @return The total number of times the supplier has failed.
+	 */
+	public long failureCount()
+	{
+		return failures.sum();
+	}
+
+	/**
+	 * Returns the total number of times the supplier has been called again after failing.
+	 *
+	 * @return The total number of times the supplier has been retried.
+	 */
+	public long retryCount()
+	{
+		return retries.sum();
+	}
+
+	private boolean isBackingOff(State current)
+	{
+		return current.failure != null && ticker.getAsLong() - current.retryAt < 0L;
+	}
+
+	@Nullable
+	private T failed(State current)
+	{
+		if(serveLastGood && current.value != null)
+			return unwrap(current.value);
+
+		// a new exception per throw, the cached one is shared by every caller and must not be mutated through suppression
+		throw new IllegalStateException("Backing off from failed Lazy load", current.failure);
+	}
+
+	private long backoffNanos(int consecutiveFailures)
+	{
+		double backoff = initialBackoffNanos * Math.pow(multiplier, consecutiveFailures - 1);
+		backoff = Math.min(backoff, maxBackoffNanos);
+		// jitter shortens the backoff by up to the given fraction, so concurrent instances do not retry in lockstep
+		backoff *= 1D - jitter * ThreadLocalRandom.current().nextDouble();
+		return Math.max(1L, (long) backoff);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private T unwrap(@Nullable Object value)
+	{
+		return value == NULL ? null : (T) value;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link BackoffLazy} whose resulting objects must never be null.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link Builder}.
+	 */
+	public static <@NotNullType T> Builder<T> builder(NotNullSupplier<T> supplier)
+	{
+		return new Builder<>(supplier, false);
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link BackoffLazy} that allows returning null values.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link Builder}.
+	 */
+	public static <@NullableType T> Builder<T> nullableBuilder(NullableSupplier<T> supplier)
+	{
+		return new Builder<>(supplier, true);
+	}
+
+	private static final class State
+	{
+		// current value when loaded, otherwise the last good value if retained
+		@Nullable private final Object value;
+		private final boolean loaded;
+		@Nullable private final RuntimeException failure;
+		private final long retryAt;
+		private final int consecutiveFailures;
+
+		private State(@Nullable Object value, boolean loaded, @Nullable RuntimeException failure, long retryAt, int consecutiveFailures)
+		{
+			this.value = value;
+			this.loaded = loaded;
+			this.failure = failure;
+			this.retryAt = retryAt;
+			this.consecutiveFailures = consecutiveFailures;
+		}
+
+		// a new instance every time, the identity of an empty state tells invalidations apart
+		private static State empty()
+		{
+			return new State(null, false, null, 0L, 0);
+		}
+	}
+
+	/**
+	 * Builder used to configure and create {@link BackoffLazy} instances.
+	 *
+	 * @param <T> Type of value to lazily get.
+	 */
+	public static final class Builder<T>
+	{
+		private final Supplier<T> supplier;
+		private final boolean nullable;
+		private long initialBackoffNanos = Duration.ofMillis(100L).toNanos();
+		private long maxBackoffNanos = Duration.ofMinutes(1L).toNanos();
+		private double multiplier = 2D;
+		private double jitter = .2D;
+		private boolean serveLastGood = false;
+		private LongSupplier ticker = System::nanoTime;
+
+		private Builder(Supplier<T> supplier, boolean nullable)
+		{
+			this.supplier = supplier;
+			this.nullable = nullable;
+		}
+
+		/**
+		 * Sets the backoff period after the first failure, defaults to 100 milliseconds.
+		 *
+		 * @param initialBackoff The backoff period after the first failure, must be positive.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the duration is not positive
+		 */
+		public Builder<T> initialBackoff(Duration initialBackoff)
+		{
+			if(initialBackoff.isNegative() || initialBackoff.isZero())
+				throw new IllegalArgumentException("Initial backoff must be positive: " + initialBackoff);
+
+			initialBackoffNanos = initialBackoff.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets the maximum backoff period, defaults to 1 minute.
+		 *
+		 * @param maxBackoff The maximum backoff period, must be positive.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the duration is not positive
+		 */
+		public Builder<T> maxBackoff(Duration maxBackoff)
+		{
+			if(maxBackoff.isNegative() || maxBackoff.isZero())
+				throw new IllegalArgumentException("Max backoff must be positive: " + maxBackoff);
+
+			maxBackoffNanos = maxBackoff.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets the factor the backoff period grows by with each consecutive failure, defaults to 2.
+		 *
+		 * @param multiplier The factor the backoff period grows by, must be at least 1.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the multiplier is less than 1
+		 */
+		public Builder<T> multiplier(double multiplier)
+		{
+			if(!(multiplier >= 1D))
+				throw new IllegalArgumentException("Multiplier must be at least 1: " + multiplier);
+
+			this.multiplier = multiplier;
+			return this;
+		}
+
+		/**
+		 * Sets the fraction by which each backoff period is randomly shortened, defaults to 0.2.
+		 * <br>
+		 * A jitter of 0 disables randomization.
+		 *
+		 * @param jitter The fraction by which backoff periods are randomly shortened, between 0 and 1.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the jitter is not between 0 and 1
+		 */
+		public Builder<T> jitter(double jitter)
+		{
+			if(!(jitter >= 0D && jitter <= 1D))
+				throw new IllegalArgumentException("Jitter must be between 0 and 1: " + jitter);
+
+			this.jitter = jitter;
+			return this;
+		}
+
+		/**
+		 * Sets whether the last successfully loaded value is served instead of the cached exception while backing off.
+		 *
+		 * @param serveLastGood Whether the last good value should be served while backing off.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> serveLastGood(boolean serveLastGood)
+		{
+			this.serveLastGood = serveLastGood;
+			return this;
+		}
+
+		/**
+		 * Sets the nanosecond time source, defaults to {@link System#nanoTime()}.
+		 *
+		 * @param ticker The nanosecond time source.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> ticker(LongSupplier ticker)
+		{
+			this.ticker = ticker;
+			return this;
+		}
+
+		/**
+		 * Builds a new {@link BackoffLazy} from this {@link Builder}.
+		 *
+		 * @return A new {@link BackoffLazy}.
+		 * @throws IllegalStateException if the initial backoff is longer than the max backoff
+		 */
+		public BackoffLazy<T> build()
+		{
+			if(initialBackoffNanos > maxBackoffNanos)
+				throw new IllegalStateException("Initial backoff must not be longer than the max backoff");
+
+			return new BackoffLazy<>(this);
+		}
+	}
+}
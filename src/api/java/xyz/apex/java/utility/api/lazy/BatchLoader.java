@@ -0,0 +1,392 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Factory of keyed {@link Lazy} objects which are resolved together through a single bulk loader.
+ * <br>
+ * Every {@link Lazy} created through {@link #lazy(Object)} adds its key to the pending batch.
+ * The pending batch is loaded as soon as any {@link Lazy} of the batch is first read,
+ * or once the optional batching window closes, whichever happens first.
+ * Batches are capped at a maximum size and the number of concurrently running bulk loads is bounded.
+ * <br>
+ * Keys which fail to load are not cached, the next read of their {@link Lazy} adds the key to the pending batch again.
+ * <br>
+ * A bulk loader may itself read lazies of the same {@link BatchLoader}, the batches this resolves run on the loading thread
+ * under the permit it already holds, so they do not count towards the concurrent load limit.
+ * Reading a key of a batch the current thread is still loading can never complete and throws an {@link IllegalStateException}.
+ *
+ * @param <K> Type of the keys values are loaded by.
+ * @param <V> Type of the loaded values.
+ * @see Lazy
+ * @see #builder(Function)
+ */
+public final class BatchLoader<K, V>
+{
+	private static final VarHandle FUTURE;
+
+	static
+	{
+		try
+		{
+			FUTURE = MethodHandles.lookup().findVarHandle(BatchLoader.BatchedLazy.class, "future", CompletableFuture.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Function<? super Set<K>, ? extends Map<K, ? extends V>> loader;
+	private final int maxBatchSize;
+	private final Semaphore permits;
+	@Nullable private final ScheduledExecutorService scheduler;
+	private final long windowNanos;
+	private final ReentrantLock lock = new ReentrantLock();
+	// batches being loaded by the current thread, outermost first, a thread with any holds a load permit
+	private final ThreadLocal<List<Map<K, CompletableFuture<V>>>> loading = ThreadLocal.withInitial(ArrayList::new);
+	private LinkedHashMap<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+	private BatchLoader(Builder<K, V> builder)
+	{
+		loader = builder.loader;
+		maxBatchSize = builder.maxBatchSize;
+		permits = new Semaphore(builder.maxConcurrentLoads);
+		scheduler = builder.scheduler;
+		windowNanos = builder.windowNanos;
+	}
+
+	/**
+	 * Creates a new concurrent (Thread safe) {@link Lazy} for the given key and adds the key to the pending batch.
+	 *
+	 * @param key The key of the value to be loaded.
+	 * @return A new {@link Lazy} resolved through the bulk loader.
+	 */
+	public Lazy<V> lazy(K key)
+	{
+		return new BatchedLazy(key);
+	}
+
+	/**
+	 * Loads every pending key on the calling thread.
+	 */
+	public void dispatch()
+	{
+		for(;;)
+		{
+			Map<K, CompletableFuture<V>> batch = takeBatch();
+
+			if(batch.isEmpty())
+				return;
+
+			load(batch);
+		}
+	}
+
+	/**
+	 * Returns the number of keys waiting to be loaded.
+	 *
+	 * @return The number of keys waiting to be loaded.
+	 */
+	public int pendingCount()
+	{
+		lock.lock();
+
+		try
+		{
+			return pending.size();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private CompletableFuture<V> enqueue(K key)
+	{
+		boolean schedule;
+		CompletableFuture<V> future;
+
+		lock.lock();
+
+		try
+		{
+			schedule = pending.isEmpty();
+			future = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		if(schedule && scheduler != null)
+			scheduler.schedule(this::dispatch, windowNanos, TimeUnit.NANOSECONDS);
+
+		return future;
+	}
+
+	private Map<K, CompletableFuture<V>> takeBatch()
+	{
+		lock.lock();
+
+		try
+		{
+			if(pending.size() <= maxBatchSize)
+			{
+				LinkedHashMap<K, CompletableFuture<V>> batch = pending;
+				pending = new LinkedHashMap<>();
+				return batch;
+			}
+
+			LinkedHashMap<K, CompletableFuture<V>> batch = new LinkedHashMap<>();
+			Iterator<Map.Entry<K, CompletableFuture<V>>> iterator = pending.entrySet().iterator();
+
+			while(batch.size() < maxBatchSize)
+			{
+				Map.Entry<K, CompletableFuture<V>> entry = iterator.next();
+				batch.put(entry.getKey(), entry.getValue());
+				iterator.remove();
+			}
+
+			return batch;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void load(Map<K, CompletableFuture<V>> batch)
+	{
+		List<Map<K, CompletableFuture<V>>> batches = loading.get();
+		// nested loads reuse the permit of the outer load, acquiring another could deadlock on the permit we hold
+		boolean nested = !batches.isEmpty();
+
+		if(!nested)
+			permits.acquireUninterruptibly();
+
+		batches.add(batch);
+
+		try
+		{
+			Map<K, ? extends V> values = loader.apply(Collections.unmodifiableSet(batch.keySet()));
+
+			batch.forEach((key, future) -> {
+				V value = values.get(key);
+
+				if(value == null)
+					future.completeExceptionally(new NoSuchElementException("Bulk loader returned no value for key: " + key));
+				else
+					future.complete(value);
+			});
+		}
+		catch(Throwable t)
+		{
+			batch.values().forEach(future -> future.completeExceptionally(t));
+		}
+		finally
+		{
+			batches.remove(batches.size() - 1);
+
+			if(!nested)
+				permits.release();
+		}
+	}
+
+	private void checkNotLoading(K key, CompletableFuture<V> future)
+	{
+		for(Map<K, CompletableFuture<V>> batch : loading.get())
+		{
+			if(batch.get(key) == future)
+				throw new IllegalStateException("Recursive load of key: " + key);
+		}
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link BatchLoader}.
+	 *
+	 * @param loader Bulk loader returning the values for a batch of keys, keys missing from the result fail to load.
+	 * @param <K> Type of the keys values are loaded by.
+	 * @param <V> Type of the loaded values.
+	 * @return A new {@link Builder}.
+	 */
+	public static <K, V> Builder<K, V> builder(Function<? super Set<K>, ? extends Map<K, ? extends V>> loader)
+	{
+		return new Builder<>(loader);
+	}
+
+	/**
+	 * {@link Lazy} whose value is loaded as part of a batch.
+	 */
+	private final class BatchedLazy implements Lazy<V>
+	{
+		private final K key;
+		@Nullable private volatile CompletableFuture<V> future;
+
+		private BatchedLazy(K key)
+		{
+			this.key = key;
+
+			future = enqueue(key);
+		}
+
+		@Override
+		public V get()
+		{
+			CompletableFuture<V> localFuture = future;
+
+			if(localFuture == null)
+			{
+				localFuture = enqueue(key);
+				future = localFuture;
+			}
+
+			// resolve pending batches on this thread until our key has been loaded, possibly by another thread
+			while(!localFuture.isDone())
+			{
+				Map<K, CompletableFuture<V>> batch = takeBatch();
+
+				if(batch.isEmpty())
+					break;
+
+				load(batch);
+			}
+
+			if(!localFuture.isDone())
+				checkNotLoading(key, localFuture);
+
+			try
+			{
+				return localFuture.join();
+			}
+			catch(CompletionException e)
+			{
+				// drop the failed load so the next read retries, unless it was already replaced
+				FUTURE.compareAndSet(this, localFuture, null);
+
+				if(e.getCause() instanceof RuntimeException cause)
+					throw cause;
+				if(e.getCause() instanceof Error cause)
+					throw cause;
+
+				throw e;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * <br>
+		 * The next call to {@link #get()} adds the key to the pending batch again.
+		 *
+		 * @see Lazy#invalidate()
+		 */
+		@Override
+		public void invalidate()
+		{
+			future = null;
+		}
+	}
+
+	/**
+	 * Builder used to configure and create {@link BatchLoader} instances.
+	 *
+	 * @param <K> Type of the keys values are loaded by.
+	 * @param <V> Type of the loaded values.
+	 */
+	public static final class Builder<K, V>
+	{
+		private final Function<? super Set<K>, ? extends Map<K, ? extends V>> loader;
+		private int maxBatchSize = Integer.MAX_VALUE;
+		private int maxConcurrentLoads = Integer.MAX_VALUE;
+		@Nullable private ScheduledExecutorService scheduler = null;
+		private long windowNanos = 0L;
+
+		private Builder(Function<? super Set<K>, ? extends Map<K, ? extends V>> loader)
+		{
+			this.loader = loader;
+		}
+
+		/**
+		 * Sets the maximum number of keys passed to a single bulk load.
+		 *
+		 * @param maxBatchSize The maximum number of keys passed to a single bulk load.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the size is not positive
+		 */
+		public Builder<K, V> maxBatchSize(int maxBatchSize)
+		{
+			if(maxBatchSize <= 0)
+				throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+
+			this.maxBatchSize = maxBatchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of bulk loads which may run at the same time.
+		 *
+		 * @param maxConcurrentLoads The maximum number of bulk loads which may run at the same time.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the amount is not positive
+		 */
+		public Builder<K, V> maxConcurrentLoads(int maxConcurrentLoads)
+		{
+			if(maxConcurrentLoads <= 0)
+				throw new IllegalArgumentException("Max concurrent loads must be positive: " + maxConcurrentLoads);
+
+			this.maxConcurrentLoads = maxConcurrentLoads;
+			return this;
+		}
+
+		/**
+		 * Sets the batching window, once the window after the first key was added to a batch closes, the batch is loaded on the given scheduler.
+		 * <br>
+		 * Without a batching window batches are only loaded when read.
+		 *
+		 * @param window The batching window.
+		 * @param scheduler The scheduler the batch is loaded on once the window closes.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the window is negative
+		 */
+		public Builder<K, V> batchWindow(Duration window, ScheduledExecutorService scheduler)
+		{
+			if(window.isNegative())
+				throw new IllegalArgumentException("Batch window must not be negative: " + window);
+
+			this.scheduler = scheduler;
+			windowNanos = window.toNanos();
+			return this;
+		}
+
+		/**
+		 * Builds a new {@link BatchLoader} from this {@link Builder}.
+		 *
+		 * @return A new {@link BatchLoader}.
+		 */
+		public BatchLoader<K, V> build()
+		{
+			return new BatchLoader<>(this);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,301 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+import xyz.apex.java.utility.api.nullness.NullableSupplier;
+import xyz.apex.java.utility.api.nullness.NullableType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent (Thread safe) {@link Lazy} with a minimal memory footprint,
+ * intended for use cases holding very large numbers of {@link Lazy} instances.
+ * <br>
+ * All state is kept in a single field, no separate lock object is allocated
+ * and, unless created as invalidatable, the supplier (and everything it captures)
+ * is released as soon as the value has been computed.
+ * Once initialized, a non invalidatable {@link CompactLazy} costs an object header and a single reference,
+ * and invalidating it does nothing.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see #of(NotNullSupplier, boolean)
+ * @see #ofNullable(NullableSupplier, boolean)
+ */
+public abstract class CompactLazy<T> implements Lazy<T>
+{
+	private static final VarHandle STATE;
+	// marks a cached null value
+	private static final Object NULL = new Object();
+
+	static
+	{
+		try
+		{
+			STATE = MethodHandles.lookup().findVarHandle(CompactLazy.class, "state", Object.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	// the (masked) value, Pending, Loading or null (uninitialized, invalidatable only)
+	@Nullable private volatile Object state;
+
+	private CompactLazy(@Nullable Object state)
+	{
+		this.state = state;
+	}
+
+	abstract Pending pending();
+
+	@Nullable
+	abstract Object uninitialized(Pending pending);
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see Lazy#get()
+	 */
+	@Nullable
+	@Override
+	public final T get()
+	{
+		Object current = STATE.getAcquire(this);
+
+		if(current != null && !(current instanceof Marker))
+			return unmask(current);
+
+		return getSlow();
+	}
+
+	@Nullable
+	private T getSlow()
+	{
+		for(;;)
+		{
+			Object current = STATE.getAcquire(this);
+
+			if(current != null && !(current instanceof Marker))
+				return unmask(current);
+			else if(current instanceof Loading loading)
+				return unmask(loading.load.await());
+
+			Pending pending = current == null ? pending() : (Pending) current;
+			Loading loading = new Loading(pending);
+
+			if(STATE.compareAndSet(this, current, loading))
+				return load(loading);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private T load(Loading loading)
+	{
+		try
+		{
+			T value = (T) loading.pending.supplier.get();
+
+			if(!loading.pending.nullable)
+				Objects.requireNonNull(value, "Unexpected null value from supplier");
+
+			Object masked = value == null ? NULL : value;
+			STATE.compareAndSet(this, loading, masked);
+			loading.load.complete(masked);
+			return value;
+		}
+		catch(Throwable t)
+		{
+			STATE.compareAndSet(this, loading, uninitialized(loading.pending));
+			loading.load.fail(t);
+			throw t;
+		}
+	}
+
+	final void reset()
+	{
+		STATE.setRelease(this, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private T unmask(Object value)
+	{
+		return value == NULL ? null : (T) value;
+	}
+
+	/**
+	 * Creates a new {@link CompactLazy} whose resulting objects must never be null.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param invalidatable Whether the {@link Lazy} can be invalidated, invalidatable lazies must retain their supplier while invalidating any other does nothing.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link CompactLazy}.
+	 * @see Supplier
+	 * @see NotNullSupplier
+	 */
+	public static <@NotNullType T> CompactLazy<T> of(NotNullSupplier<T> supplier, boolean invalidatable)
+	{
+		return invalidatable ? new Invalidatable<>(supplier, false) : new OneShot<>(supplier, false);
+	}
+
+	/**
+	 * Creates a new non invalidatable {@link CompactLazy} whose resulting objects must never be null.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link CompactLazy}.
+	 * @see #of(NotNullSupplier, boolean)
+	 */
+	public static <@NotNullType T> CompactLazy<T> of(NotNullSupplier<T> supplier)
+	{
+		return of(supplier, false);
+	}
+
+	/**
+	 * Creates a new {@link CompactLazy} that allows null values.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param invalidatable Whether the {@link Lazy} can be invalidated, invalidatable lazies must retain their supplier while invalidating any other does nothing.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link CompactLazy}.
+	 * @see Supplier
+	 * @see NullableSupplier
+	 */
+	public static <@NullableType T> CompactLazy<T> ofNullable(NullableSupplier<T> supplier, boolean invalidatable)
+	{
+		return invalidatable ? new Invalidatable<>(supplier, true) : new OneShot<>(supplier, true);
+	}
+
+	/**
+	 * Creates a new non invalidatable {@link CompactLazy} that allows null values.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link CompactLazy}.
+	 * @see #ofNullable(NullableSupplier, boolean)
+	 */
+	public static <@NullableType T> CompactLazy<T> ofNullable(NullableSupplier<T> supplier)
+	{
+		return ofNullable(supplier, false);
+	}
+
+	/**
+	 * {@link CompactLazy} which can not be invalidated,
+	 * its supplier is only referenced from its state until the value has been computed.
+	 *
+	 * @param <T> Type of value to lazily get.
+	 */
+	private static final class OneShot<T> extends CompactLazy<T>
+	{
+		private OneShot(Supplier<T> supplier, boolean nullable)
+		{
+			super(new Pending(supplier, nullable));
+		}
+
+		@Override
+		Pending pending()
+		{
+			// the state of a one shot lazy is never null
+			throw new IllegalStateException();
+		}
+
+		@Override
+		Object uninitialized(Pending pending)
+		{
+			return pending;
+		}
+
+		/**
+		 * Does nothing, the supplier of this {@link Lazy} has been released so its value is kept for its lifetime.
+		 * <br>
+		 * Callers invalidating any {@link Lazy}, such as dependents or budgets, therefore never reload a one shot lazy.
+		 *
+		 * @see Lazy#invalidate()
+		 */
+		@Override
+		public void invalidate()
+		{
+		}
+	}
+
+	/**
+	 * {@link CompactLazy} which can be invalidated, and so must retain its supplier.
+	 *
+	 * @param <T> Type of value to lazily get.
+	 */
+	private static final class Invalidatable<T> extends CompactLazy<T>
+	{
+		private final Supplier<T> supplier;
+		private final boolean nullable;
+
+		private Invalidatable(Supplier<T> supplier, boolean nullable)
+		{
+			super(null);
+
+			this.supplier = supplier;
+			this.nullable = nullable;
+		}
+
+		@Override
+		Pending pending()
+		{
+			return new Pending(supplier, nullable);
+		}
+
+		@Nullable
+		@Override
+		Object uninitialized(Pending pending)
+		{
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * <br>
+		 * A load already in flight is not cached once it completes.
+		 *
+		 * @see Lazy#invalidate()
+		 */
+		@Override
+		public void invalidate()
+		{
+			reset();
+		}
+	}
+
+	private abstract static class Marker
+	{
+	}
+
+	private static final class Pending extends Marker
+	{
+		private final Supplier<?> supplier;
+		private final boolean nullable;
+
+		private Pending(Supplier<?> supplier, boolean nullable)
+		{
+			this.supplier = supplier;
+			this.nullable = nullable;
+		}
+	}
+
+	private static final class Loading extends Marker
+	{
+		private final Pending pending;
+		private final InFlightLoad load = new InFlightLoad();
+
+		private Loading(Pending pending)
+		{
+			this.pending = pending;
+		}
+	}
+}
\ No newline at end of file
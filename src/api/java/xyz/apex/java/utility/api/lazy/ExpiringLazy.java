@@ -0,0 +1,431 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+import xyz.apex.java.utility.api.nullness.NullableSupplier;
+import xyz.apex.java.utility.api.nullness.NullableType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent (Thread safe) {@link Lazy} whose value expires a fixed amount of time after it was written.
+ * <br>
+ * Values may optionally be refreshed ahead of their expiry on a background {@link Executor},
+ * and expired values may optionally continue to be served while the reload is in flight,
+ * meaning readers never have to wait for the supplier once the first value has been loaded.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see #builder(NotNullSupplier)
+ * @see #nullableBuilder(NullableSupplier)
+ */
+public final class ExpiringLazy<T> implements Lazy<T>
+{
+	private static final VarHandle ENTRY;
+	private static final VarHandle REFRESHING;
+
+	static
+	{
+		try
+		{
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			ENTRY = lookup.findVarHandle(ExpiringLazy.class, "entry", Entry.class);
+			REFRESHING = lookup.findVarHandle(ExpiringLazy.class, "refreshing", boolean.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Supplier<T> supplier;
+	private final boolean nullable;
+	private final long expireAfterWriteNanos;
+	private final long refreshAheadNanos;
+	private final boolean serveStale;
+	private final Executor executor;
+	private final LongSupplier ticker;
+	@Nullable private final TimingWheel timingWheel;
+	private final ReentrantLock loadLock = new ReentrantLock();
+	// never null, invalidating installs a new empty entry so a load started before it can not be published over it
+	private volatile Entry<T> entry = Entry.empty();
+	private volatile boolean refreshing = false;
+
+	private ExpiringLazy(Builder<T> builder)
+	{
+		supplier = builder.supplier;
+		nullable = builder.nullable;
+		expireAfterWriteNanos = builder.expireAfterWriteNanos;
+		refreshAheadNanos = builder.refreshAheadNanos;
+		serveStale = builder.serveStale;
+		executor = builder.executor;
+		timingWheel = builder.timingWheel;
+
+		if(builder.ticker != null)
+			ticker = builder.ticker;
+		else if(timingWheel != null)
+			ticker = timingWheel.ticker();
+		else
+			ticker = System::nanoTime;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Only the very first load, or a load after {@link #invalidate()},
+	 * or a load after expiry when stale values are not served, is done on the calling thread.
+	 *
+	 * @see Lazy#get()
+	 */
+	@Nullable
+	@Override
+	public T get()
+	{
+		Entry<T> current = entry;
+
+		if(current.loaded)
+		{
+			long now = ticker.getAsLong();
+
+			if(now - current.refreshAt < 0L)
+				return current.value;
+
+			if(now - current.expiresAt < 0L || serveStale)
+			{
+				refreshAsync(current);
+				return current.value;
+			}
+		}
+
+		return getSlow();
+	}
+
+	@Nullable
+	private T getSlow()
+	{
+		loadLock.lock();
+
+		try
+		{
+			Entry<T> current = entry;
+
+			if(current.loaded && ticker.getAsLong() - current.expiresAt < 0L)
+				return current.value;
+
+			Entry<T> loaded = load();
+
+			// a failed CAS means we were invalidated mid load, hand the result to this caller but do not cache it
+			if(ENTRY.compareAndSet(this, current, loaded))
+			{
+				cancelExpiry(current);
+				scheduleExpiry(loaded);
+			}
+
+			return loaded.value;
+		}
+		finally
+		{
+			loadLock.unlock();
+		}
+	}
+
+	private void refreshAsync(Entry<T> current)
+	{
+		if(!REFRESHING.compareAndSet(this, false, true))
+			return;
+
+		if(entry != current)
+		{
+			refreshing = false;
+			return;
+		}
+
+		try
+		{
+			executor.execute(() -> {
+				// single flight with synchronous loads, a load already holding the lock replaces the entry anyway
+				if(!loadLock.tryLock())
+				{
+					refreshing = false;
+					return;
+				}
+
+				try
+				{
+					// the entry may have been replaced while this refresh was queued, refreshing it would be wasted
+					if(entry != current)
+						return;
+
+					// only replace the entry we were asked to refresh, an invalidate wins
+					Entry<T> refreshed = load();
+
+					if(ENTRY.compareAndSet(this, current, refreshed))
+					{
+						cancelExpiry(current);
+						scheduleExpiry(refreshed);
+					}
+				}
+				finally
+				{
+					loadLock.unlock();
+					refreshing = false;
+				}
+			});
+		}
+		catch(Throwable t)
+		{
+			refreshing = false;
+			throw t;
+		}
+	}
+
+	private void scheduleExpiry(Entry<T> scheduled)
+	{
+		// stale values may still be served, so only values which are never served again are dropped
+		if(timingWheel == null || serveStale)
+			return;
+
+		scheduled.expiry = timingWheel.schedule(() -> ENTRY.compareAndSet(this, scheduled, Entry.empty()), scheduled.expiresAt - ticker.getAsLong());
+
+		// replaced before the timeout was stored, so whoever replaced it may not have seen it to cancel it
+		if(entry != scheduled)
+			scheduled.expiry.cancel();
+	}
+
+	// drops the timeout of a replaced entry, so replaced entries do not linger on the wheel until their expiry
+	private static void cancelExpiry(Entry<?> replaced)
+	{
+		TimingWheel.Timeout expiry = replaced.expiry;
+
+		if(expiry != null)
+			expiry.cancel();
+	}
+
+	private Entry<T> load()
+	{
+		T value = supplier.get();
+
+		if(!nullable)
+			Objects.requireNonNull(value, "Unexpected null value from supplier");
+
+		long now = ticker.getAsLong();
+		long expiresAt = now + expireAfterWriteNanos;
+		return new Entry<>(value, true, expiresAt, expiresAt - refreshAheadNanos);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * The next call to {@link #get()} reloads the value on the calling thread,
+	 * any background refresh in flight is discarded once it completes.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	@Override
+	public void invalidate()
+	{
+		cancelExpiry((Entry<?>) ENTRY.getAndSet(this, Entry.empty()));
+	}
+
+	/**
+	 * Returns whether this {@link ExpiringLazy} currently holds a value which has not yet expired.
+	 *
+	 * @return Whether this {@link ExpiringLazy} currently holds a value which has not yet expired.
+	 */
+	public boolean isFresh()
+	{
+		Entry<T> current = entry;
+		return current.loaded && ticker.getAsLong() - current.expiresAt < 0L;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for an {@link ExpiringLazy} whose resulting objects must never be null.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link Builder}.
+	 */
+	public static <@NotNullType T> Builder<T> builder(NotNullSupplier<T> supplier)
+	{
+		return new Builder<>(supplier, false);
+	}
+
+	/**
+	 * Creates a new {@link Builder} for an {@link ExpiringLazy} that allows returning null values.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link Builder}.
+	 */
+	public static <@NullableType T> Builder<T> nullableBuilder(NullableSupplier<T> supplier)
+	{
+		return new Builder<>(supplier, true);
+	}
+
+	private static final class Entry<T>
+	{
+		@Nullable private final T value;
+		private final boolean loaded;
+		private final long expiresAt;
+		private final long refreshAt;
+		// set once scheduled on the timing wheel, cancelled when this entry is replaced
+		@Nullable private volatile TimingWheel.Timeout expiry = null;
+
+		private Entry(@Nullable T value, boolean loaded, long expiresAt, long refreshAt)
+		{
+			this.value = value;
+			this.loaded = loaded;
+			this.expiresAt = expiresAt;
+			this.refreshAt = refreshAt;
+		}
+
+		// a new instance every time, the identity of an empty entry tells invalidations apart
+		private static <T> Entry<T> empty()
+		{
+			return new Entry<>(null, false, 0L, 0L);
+		}
+	}
+
+	/**
+	 * Builder used to configure and create {@link ExpiringLazy} instances.
+	 *
+	 * @param <T> Type of value to lazily get.
+	 */
+	public static final class Builder<T>
+	{
+		private final Supplier<T> supplier;
+		private final boolean nullable;
+		private long expireAfterWriteNanos = -1L;
+		private long refreshAheadNanos = 0L;
+		private boolean serveStale = false;
+		private Executor executor = ForkJoinPool.commonPool();
+		@Nullable private LongSupplier ticker = null;
+		@Nullable private TimingWheel timingWheel = null;
+
+		private Builder(Supplier<T> supplier, boolean nullable)
+		{
+			this.supplier = supplier;
+			this.nullable = nullable;
+		}
+
+		/**
+		 * Sets how long values remain valid after being written.
+		 *
+		 * @param duration Time values remain valid after being written, must be positive.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the duration is not positive
+		 */
+		public Builder<T> expireAfterWrite(Duration duration)
+		{
+			if(duration.isNegative() || duration.isZero())
+				throw new IllegalArgumentException("Expire after write duration must be positive: " + duration);
+
+			expireAfterWriteNanos = duration.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets the window before expiry during which reads trigger a background refresh of the value.
+		 * <br>
+		 * A zero window (the default) disables refresh-ahead.
+		 *
+		 * @param window Window before expiry during which values are refreshed in the background.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the window is negative
+		 */
+		public Builder<T> refreshAhead(Duration window)
+		{
+			if(window.isNegative())
+				throw new IllegalArgumentException("Refresh ahead window must not be negative: " + window);
+
+			refreshAheadNanos = window.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets whether expired values continue to be served while they are reloaded in the background.
+		 *
+		 * @param serveStale Whether expired values should be served while reloading.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> serveStale(boolean serveStale)
+		{
+			this.serveStale = serveStale;
+			return this;
+		}
+
+		/**
+		 * Sets the {@link Executor} used for background refreshes, defaults to {@link ForkJoinPool#commonPool()}.
+		 *
+		 * @param executor The {@link Executor} used for background refreshes.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> executor(Executor executor)
+		{
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Sets the nanosecond time source, defaults to the {@link TimingWheel#ticker() ticker} of the timing wheel if one is set,
+		 * otherwise to {@link System#nanoTime()}.
+		 * <br>
+		 * When a timing wheel is also set this must be the very same time source as the wheel's,
+		 * as expiry delays are computed against this time source but elapse on the wheel's.
+		 *
+		 * @param ticker The nanosecond time source.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> ticker(LongSupplier ticker)
+		{
+			this.ticker = ticker;
+			return this;
+		}
+
+		/**
+		 * Sets the {@link TimingWheel} used to drop values once they expire, releasing them without waiting for the next read.
+		 * <br>
+		 * Without a timing wheel (the default) expired values are only dropped when next read.
+		 * Has no effect when stale values are served, as expired values are then retained until replaced.
+		 * Unless a ticker is set, values expire against the {@link TimingWheel#ticker() ticker} of the timing wheel.
+		 *
+		 * @param timingWheel The {@link TimingWheel} used to drop expired values.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> timingWheel(TimingWheel timingWheel)
+		{
+			this.timingWheel = timingWheel;
+			return this;
+		}
+
+		/**
+		 * Builds a new {@link ExpiringLazy} from this {@link Builder}.
+		 *
+		 * @return A new {@link ExpiringLazy}.
+		 * @throws IllegalStateException if no expiry was set, the refresh window is not shorter than the expiry,
+		 * or the ticker is not the ticker of the timing wheel
+		 */
+		public ExpiringLazy<T> build()
+		{
+			if(expireAfterWriteNanos <= 0L)
+				throw new IllegalStateException("Expire after write duration must be set");
+			if(refreshAheadNanos >= expireAfterWriteNanos)
+				throw new IllegalStateException("Refresh ahead window must be shorter than the expire after write duration");
+			if(timingWheel != null && ticker != null && ticker != timingWheel.ticker())
+				throw new IllegalStateException("Ticker must be the ticker of the timing wheel");
+
+			return new ExpiringLazy<>(this);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Result of a load in flight, waited on by every thread other than the one running the load.
+ * <br>
+ * Shared by the lock-free {@link xyz.apex.java.utility.api.Lazy} implementations.
+ * Remembers the loading thread, so recursive initialization can be reported rather than deadlocking,
+ * and rethrows a failed load to every waiter unwrapped.
+ */
+final class InFlightLoad
+{
+	private final Thread owner = Thread.currentThread();
+	private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+	/**
+	 * Returns whether the current thread is running this load.
+	 *
+	 * @return Whether the current thread is running this load.
+	 */
+	boolean isOwner()
+	{
+		return owner == Thread.currentThread();
+	}
+
+	void complete(@Nullable Object value)
+	{
+		result.complete(value);
+	}
+
+	void fail(Throwable t)
+	{
+		result.completeExceptionally(t);
+	}
+
+	/**
+	 * Waits for this load to complete.
+	 *
+	 * @return The result of this load.
+	 * @throws IllegalStateException if the current thread is running this load
+	 */
+	@Nullable
+	Object await()
+	{
+		if(isOwner())
+			throw new IllegalStateException("Recursive initialization of Lazy");
+
+		try
+		{
+			return result.join();
+		}
+		catch(CompletionException e)
+		{
+			throw unwrap(e);
+		}
+	}
+
+	/**
+	 * Waits at most the given time for this load to complete.
+	 *
+	 * @param nanos The maximum time to wait, in nanoseconds.
+	 * @return The result of this load.
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 * @throws TimeoutException if the wait timed out
+	 */
+	@Nullable
+	Object await(long nanos) throws InterruptedException, TimeoutException
+	{
+		try
+		{
+			return result.get(nanos, TimeUnit.NANOSECONDS);
+		}
+		catch(ExecutionException e)
+		{
+			throw unwrap(e);
+		}
+	}
+
+	private static RuntimeException unwrap(Exception e)
+	{
+		if(e.getCause() instanceof RuntimeException cause)
+			return cause;
+		if(e.getCause() instanceof Error cause)
+			throw cause;
+
+		return new CompletionException(e.getCause());
+	}
+}
@@ -0,0 +1,207 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Fixed size, concurrent (Thread safe) array whose elements are lazily computed on first access.
+ * <br>
+ * Values are stored directly in a single backing array alongside a {@code long[]} of per slot stamps,
+ * no object is allocated per slot, making this suitable for index spaces of tens of millions of slots.
+ * A stamp holds the generation of its slot, bumped by every invalidation, and whether the slot is empty, being written or loaded.
+ * <br>
+ * Slots are published using CAS on their stamp, under contention the loader may be invoked more than once for a slot,
+ * but only a single value is ever published per generation and returned to all readers.
+ * A load which started before its slot was invalidated returns its value to the caller but does not publish it.
+ *
+ * @param <T> Type of the elements.
+ * @see Lazy
+ * @see LazyLongArray
+ */
+public final class LazyArray<T>
+{
+	private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+	private static final VarHandle STAMPS = MethodHandles.arrayElementVarHandle(long[].class);
+	// low bits of a stamp hold the slot state, the remaining bits its generation
+	private static final long STATE_MASK = 3L;
+	private static final long WRITING = 1L;
+	private static final long LOADED = 2L;
+
+	private final IntFunction<? extends T> loader;
+	private final Object[] slots;
+	private final long[] stamps;
+
+	/**
+	 * Creates a new {@link LazyArray}.
+	 *
+	 * @param length The number of slots in the array.
+	 * @param loader Function computing the element at a given index.
+	 * @throws NegativeArraySizeException if the length is negative
+	 */
+	public LazyArray(int length, IntFunction<? extends T> loader)
+	{
+		this.loader = loader;
+
+		slots = new Object[length];
+		stamps = new long[length];
+	}
+
+	/**
+	 * Returns the element at the given index, computing it if it has not yet been computed.
+	 *
+	 * @param index Index of the element.
+	 * @return The element at the given index.
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public T get(int index)
+	{
+		long expected;
+
+		for(;;)
+		{
+			expected = stamp(index);
+
+			if((expected & STATE_MASK) != LOADED)
+				break;
+
+			Object value = SLOTS.getAcquire(slots, index);
+
+			// an unchanged stamp means the slot was not rewritten while it was read
+			if((long) STAMPS.getAcquire(stamps, index) == expected)
+				return (T) value;
+		}
+
+		T value = loader.apply(index);
+
+		for(;;)
+		{
+			long witness = (long) STAMPS.compareAndExchange(stamps, index, expected, expected | WRITING);
+
+			if(witness == expected)
+			{
+				// the claim keeps every other writer out until the value is released by the loaded stamp
+				SLOTS.setOpaque(slots, index, value);
+				STAMPS.setRelease(stamps, index, expected | LOADED);
+				return value;
+			}
+
+			// invalidated mid load, hand the result to this caller but do not publish it
+			if((witness & ~STATE_MASK) != expected)
+				return value;
+			// another load published first, its value wins
+			if((witness & STATE_MASK) == LOADED)
+				return (T) SLOTS.getAcquire(slots, index);
+
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Returns whether the element at the given index has been computed.
+	 *
+	 * @param index Index of the element.
+	 * @return Whether the element at the given index has been computed.
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public boolean isLoaded(int index)
+	{
+		return ((long) STAMPS.getAcquire(stamps, index) & STATE_MASK) == LOADED;
+	}
+
+	/**
+	 * Invalidates the element at the given index, the next access recomputes it.
+	 * <br>
+	 * Bumps the generation of the slot, a load already in flight for the slot is not published once it completes.
+	 *
+	 * @param index Index of the element.
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public void invalidate(int index)
+	{
+		for(;;)
+		{
+			long current = stamp(index);
+			// the next generation, in the empty state
+			long next = (current | STATE_MASK) + 1L;
+
+			// claimed like a load, so the discarded value can be cleared for the garbage collector without racing a writer
+			if(STAMPS.compareAndSet(stamps, index, current, next | WRITING))
+			{
+				SLOTS.setOpaque(slots, index, null);
+				STAMPS.setRelease(stamps, index, next);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Invalidates every element of this array.
+	 */
+	public void invalidateAll()
+	{
+		for(int i = 0; i < slots.length; i++)
+		{
+			invalidate(i);
+		}
+	}
+
+	/**
+	 * Returns the number of slots in this array.
+	 *
+	 * @return The number of slots in this array.
+	 */
+	public int length()
+	{
+		return slots.length;
+	}
+
+	/**
+	 * Returns a {@link Lazy} view of the slot at the given index.
+	 *
+	 * @param index Index of the element.
+	 * @return A {@link Lazy} view of the slot at the given index.
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public Lazy<T> asLazy(int index)
+	{
+		Objects.checkIndex(index, slots.length);
+
+		return new Lazy<>()
+		{
+			@Nullable
+			@Override
+			public T get()
+			{
+				return LazyArray.this.get(index);
+			}
+
+			@Override
+			public void invalidate()
+			{
+				LazyArray.this.invalidate(index);
+			}
+		};
+	}
+
+	// reads the stamp of a slot, waiting out a value being written, which is a single store
+	private long stamp(int index)
+	{
+		for(;;)
+		{
+			long stamp = (long) STAMPS.getAcquire(stamps, index);
+
+			if((stamp & STATE_MASK) != WRITING)
+				return stamp;
+
+			Thread.onSpinWait();
+		}
+	}
+}
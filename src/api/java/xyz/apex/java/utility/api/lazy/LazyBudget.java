@@ -0,0 +1,471 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Memory budget shared by any number of {@link Lazy} objects, bounding the total estimated weight of their loaded values.
+ * <br>
+ * Lazies registered through {@link #register(Lazy, ToLongFunction)} report the weight of every value they load.
+ * Once the total weight exceeds the budget, or optionally once the heap is under pressure,
+ * the least valuable loaded lazies are invalidated, weighing their weight against how expensive they were to compute
+ * and how recently they were read.
+ * Victims are chosen approximately, each one being the least valuable of a small random sample of the loaded lazies,
+ * so an eviction costs the same no matter how many lazies are registered.
+ * <br>
+ * Registered lazies must only be invalidated through the returned {@link Lazy}, so that their weight is released.
+ *
+ * @see Lazy
+ * @see #builder(long)
+ */
+public final class LazyBudget implements AutoCloseable
+{
+	// number of loaded lazies compared to pick each victim
+	private static final int SAMPLE_SIZE = 8;
+
+	private final long maxWeight;
+	private final LongSupplier ticker;
+	private final ReentrantLock lock = new ReentrantLock();
+	// every charge knows its own index, so charges are removed by swapping in the last one
+	private final List<Charge> charges = new ArrayList<>();
+	private final LongAdder evictions = new LongAdder();
+	// heap pool collection usage thresholds replaced by this budget, restored once closed
+	private final Map<MemoryPoolMXBean, Long> replacedThresholds = new LinkedHashMap<>();
+	@Nullable private final NotificationListener heapListener;
+	private long totalWeight = 0L;
+
+	private LazyBudget(Builder builder)
+	{
+		maxWeight = builder.maxWeight;
+		ticker = builder.ticker;
+		heapListener = builder.heapUsageThreshold > 0D ? monitorHeap(builder.heapUsageThreshold) : null;
+	}
+
+	/**
+	 * Registers the given {@link Lazy} with this budget.
+	 * <br>
+	 * The returned {@link Lazy} charges the weight of every value it loads against this budget,
+	 * and is invalidated when evicted by this budget.
+	 *
+	 * @param lazy The {@link Lazy} to be registered.
+	 * @param weigher Function estimating the weight of a loaded value, such as its retained size in bytes.
+	 * @param <T> Type of value to lazily get.
+	 * @return A {@link Lazy} accounted against this budget, to be used in place of the given {@link Lazy}.
+	 */
+	public <T> Lazy<T> register(Lazy<T> lazy, ToLongFunction<? super T> weigher)
+	{
+		return new BudgetedLazy<>(this, lazy, weigher);
+	}
+
+	/**
+	 * Returns the total weight of all currently loaded registered values.
+	 *
+	 * @return The total weight of all currently loaded registered values.
+	 */
+	public long totalWeight()
+	{
+		lock.lock();
+
+		try
+		{
+			return totalWeight;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the maximum total weight of this budget.
+	 *
+	 * @return The maximum total weight of this budget.
+	 */
+	public long maxWeight()
+	{
+		return maxWeight;
+	}
+
+	/**
+	 * Returns the total number of values evicted by this budget.
+	 *
+	 * @return The total number of values evicted by this budget.
+	 */
+	public long evictionCount()
+	{
+		return evictions.sum();
+	}
+
+	/**
+	 * Evicts the least valuable loaded values until the total weight is no more than the given weight.
+	 * <br>
+	 * Each victim is the least valuable of a small random sample of the loaded values.
+	 *
+	 * @param targetWeight The total weight to evict down to.
+	 */
+	public void evictTo(long targetWeight)
+	{
+		List<Charge> victims = new ArrayList<>();
+
+		lock.lock();
+
+		try
+		{
+			if(totalWeight <= targetWeight)
+				return;
+
+			long now = ticker.getAsLong();
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+
+			while(totalWeight > targetWeight && !charges.isEmpty())
+			{
+				Charge victim = null;
+				double victimValue = Double.MAX_VALUE;
+
+				// every sampled value is computed exactly once, readers update recency without the budget lock
+				for(int i = 0; i < SAMPLE_SIZE; i++)
+				{
+					Charge candidate = charges.get(random.nextInt(charges.size()));
+					double value = candidate.value(now);
+
+					if(victim == null || value < victimValue)
+					{
+						victim = candidate;
+						victimValue = value;
+					}
+				}
+
+				remove(victim);
+				totalWeight -= victim.weight;
+				victims.add(victim);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		// evicted outside the budget lock, lazies charge the budget while holding their own lock
+		for(Charge victim : victims)
+		{
+			victim.owner.evict(victim);
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * Stops listening for heap usage notifications, if enabled,
+	 * and restores the heap pool collection usage thresholds this budget replaced.
+	 * <br>
+	 * Registered lazies remain accounted against this budget.
+	 */
+	@Override
+	public void close()
+	{
+		if(heapListener == null)
+			return;
+
+		try
+		{
+			((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(heapListener);
+		}
+		catch(ListenerNotFoundException ignored)
+		{
+		}
+
+		synchronized(replacedThresholds)
+		{
+			replacedThresholds.forEach(MemoryPoolMXBean::setCollectionUsageThreshold);
+			replacedThresholds.clear();
+		}
+	}
+
+	private void charge(Charge charge)
+	{
+		lock.lock();
+
+		try
+		{
+			charge.index = charges.size();
+			charges.add(charge);
+			totalWeight += charge.weight;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		evictTo(maxWeight);
+	}
+
+	private void discharge(Charge charge)
+	{
+		lock.lock();
+
+		try
+		{
+			if(charge.index >= 0)
+			{
+				remove(charge);
+				totalWeight -= charge.weight;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void remove(Charge charge)
+	{
+		Charge last = charges.remove(charges.size() - 1);
+
+		if(last != charge)
+		{
+			charges.set(charge.index, last);
+			last.index = charge.index;
+		}
+
+		charge.index = -1;
+	}
+
+	private NotificationListener monitorHeap(double usageThreshold)
+	{
+		for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+		{
+			long max = pool.getUsage().getMax();
+
+			// the collection usage threshold reflects live data remaining after a collection rather than garbage
+			if(pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0L)
+			{
+				replacedThresholds.put(pool, pool.getCollectionUsageThreshold());
+				pool.setCollectionUsageThreshold((long) (max * usageThreshold));
+			}
+		}
+
+		NotificationListener listener = this::onHeapNotification;
+		((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(listener, null, null);
+		return listener;
+	}
+
+	private void onHeapNotification(Notification notification, @Nullable Object handback)
+	{
+		if(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType()))
+			evictTo(totalWeight() / 2L);
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link LazyBudget}.
+	 *
+	 * @param maxWeight The maximum total weight of loaded values.
+	 * @return A new {@link Builder}.
+	 * @throws IllegalArgumentException if the max weight is negative
+	 */
+	public static Builder builder(long maxWeight)
+	{
+		if(maxWeight < 0L)
+			throw new IllegalArgumentException("Max weight must not be negative: " + maxWeight);
+
+		return new Builder(maxWeight);
+	}
+
+	private static final class Charge
+	{
+		private final BudgetedLazy<?> owner;
+		private final long weight;
+		private final long costNanos;
+		private volatile long lastAccess;
+		// position in the budgets charges, -1 once removed, guarded by the budget lock
+		private int index = -1;
+
+		private Charge(BudgetedLazy<?> owner, long weight, long costNanos, long lastAccess)
+		{
+			this.owner = owner;
+			this.weight = weight;
+			this.costNanos = costNanos;
+			this.lastAccess = lastAccess;
+		}
+
+		// cheap to recompute, heavy and long unused values are the least valuable
+		private double value(long now)
+		{
+			return (costNanos + 1D) / (weight + 1D) / (Math.max(0L, now - lastAccess) + 1D);
+		}
+	}
+
+	private static final class BudgetedLazy<T> implements Lazy<T>
+	{
+		private final LazyBudget budget;
+		private final Lazy<T> delegate;
+		private final ToLongFunction<? super T> weigher;
+		private final ReentrantLock lock = new ReentrantLock();
+		@Nullable private volatile Charge charge = null;
+
+		private BudgetedLazy(LazyBudget budget, Lazy<T> delegate, ToLongFunction<? super T> weigher)
+		{
+			this.budget = budget;
+			this.delegate = delegate;
+			this.weigher = weigher;
+		}
+
+		@Nullable
+		@Override
+		public T get()
+		{
+			Charge current = charge;
+
+			if(current != null)
+			{
+				current.lastAccess = budget.ticker.getAsLong();
+				T value = delegate.get();
+
+				// evicted while reading, the value may have been reloaded without being charged
+				if(charge == current)
+					return value;
+			}
+
+			T value;
+			Charge loaded = null;
+
+			lock.lock();
+
+			try
+			{
+				long start = budget.ticker.getAsLong();
+				value = delegate.get();
+
+				if(charge == null)
+				{
+					long now = budget.ticker.getAsLong();
+					loaded = new Charge(this, Math.max(0L, weigher.applyAsLong(value)), now - start, now);
+					charge = loaded;
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+
+			if(loaded != null)
+				budget.charge(loaded);
+
+			return value;
+		}
+
+		@Override
+		public void invalidate()
+		{
+			Charge current;
+
+			lock.lock();
+
+			try
+			{
+				current = charge;
+				charge = null;
+				delegate.invalidate();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+
+			if(current != null)
+				budget.discharge(current);
+		}
+
+		private void evict(Charge evicted)
+		{
+			lock.lock();
+
+			try
+			{
+				if(charge == evicted)
+				{
+					charge = null;
+					delegate.invalidate();
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Builder used to configure and create {@link LazyBudget} instances.
+	 */
+	public static final class Builder
+	{
+		private final long maxWeight;
+		private double heapUsageThreshold = 0D;
+		private LongSupplier ticker = System::nanoTime;
+
+		private Builder(long maxWeight)
+		{
+			this.maxWeight = maxWeight;
+		}
+
+		/**
+		 * Enables evicting half of the total weight whenever heap usage remaining after a garbage collection
+		 * exceeds the given fraction of the maximum heap pool size, using {@link MemoryPoolMXBean} notifications.
+		 * <br>
+		 * This replaces the collection usage threshold of every heap memory pool, which is global to the JVM,
+		 * until the budget is closed.
+		 *
+		 * @param usageThreshold The fraction of heap pool usage to evict at, between 0 (exclusive) and 1.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the threshold is not between 0 (exclusive) and 1
+		 */
+		public Builder evictOnHeapPressure(double usageThreshold)
+		{
+			if(!(usageThreshold > 0D && usageThreshold <= 1D))
+				throw new IllegalArgumentException("Heap usage threshold must be between 0 (exclusive) and 1: " + usageThreshold);
+
+			heapUsageThreshold = usageThreshold;
+			return this;
+		}
+
+		/**
+		 * Sets the nanosecond time source used to measure compute cost and recency, defaults to {@link System#nanoTime()}.
+		 *
+		 * @param ticker The nanosecond time source.
+		 * @return This {@link Builder}.
+		 */
+		public Builder ticker(LongSupplier ticker)
+		{
+			this.ticker = ticker;
+			return this;
+		}
+
+		/**
+		 * Builds a new {@link LazyBudget} from this {@link Builder}.
+		 *
+		 * @return A new {@link LazyBudget}.
+		 */
+		public LazyBudget build()
+		{
+			return new LazyBudget(this);
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+import xyz.apex.java.utility.api.nullness.NullableSupplier;
+import xyz.apex.java.utility.api.nullness.NullableType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Group of concurrent (Thread safe) {@link Lazy} objects which can all be invalidated at once in constant time.
+ * <br>
+ * Every group holds an epoch counter, and every member caches the epoch its value was computed in.
+ * {@link #invalidateAll()} only bumps the epoch, members notice the changed epoch on their next read and recompute lazily,
+ * no member is touched during the invalidation itself.
+ * <br>
+ * Groups may be nested through {@link #child()}, invalidating a group also invalidates every member of its descendants.
+ *
+ * @see Lazy
+ * @see #create()
+ */
+public final class LazyGroup
+{
+	private static final VarHandle EPOCH;
+
+	static
+	{
+		try
+		{
+			EPOCH = MethodHandles.lookup().findVarHandle(LazyGroup.class, "epoch", long.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@Nullable private final LazyGroup parent;
+	private volatile long epoch = 0L;
+
+	private LazyGroup(@Nullable LazyGroup parent)
+	{
+		this.parent = parent;
+	}
+
+	/**
+	 * Creates a new {@link LazyGroup} nested within this group.
+	 * <br>
+	 * Invalidating this group also invalidates every member of the returned group.
+	 *
+	 * @return A new nested {@link LazyGroup}.
+	 */
+	public LazyGroup child()
+	{
+		return new LazyGroup(this);
+	}
+
+	/**
+	 * Invalidates every member of this group and of its descendants, without touching any of them.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	public void invalidateAll()
+	{
+		EPOCH.getAndAdd(this, 1L);
+	}
+
+	/**
+	 * Returns the current epoch of this group, which changes whenever this group or one of its ancestors is invalidated.
+	 *
+	 * @return The current epoch of this group.
+	 */
+	public long epoch()
+	{
+		// epochs only ever grow, so the sum along the chain changes whenever any ancestor is bumped
+		long sum = 0L;
+
+		for(LazyGroup group = this; group != null; group = group.parent)
+		{
+			sum += group.epoch;
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Creates a new member {@link Lazy} of this group whose resulting objects must never be null.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new member {@link Lazy} of this group.
+	 */
+	public <@NotNullType T> Lazy<T> of(NotNullSupplier<T> supplier)
+	{
+		return new Member<>(this, supplier, false);
+	}
+
+	/**
+	 * Creates a new member {@link Lazy} of this group that allows returning null values.
+	 *
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new member {@link Lazy} of this group.
+	 */
+	public <@NullableType T> Lazy<T> ofNullable(NullableSupplier<T> supplier)
+	{
+		return new Member<>(this, supplier, true);
+	}
+
+	/**
+	 * Creates a new top level {@link LazyGroup}.
+	 *
+	 * @return A new {@link LazyGroup}.
+	 */
+	public static LazyGroup create()
+	{
+		return new LazyGroup(null);
+	}
+
+	private static final class Member<T> implements Lazy<T>
+	{
+		private static final VarHandle ENTRY;
+
+		static
+		{
+			try
+			{
+				ENTRY = MethodHandles.lookup().findVarHandle(Member.class, "entry", Entry.class);
+			}
+			catch(ReflectiveOperationException e)
+			{
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private final LazyGroup group;
+		private final Supplier<T> supplier;
+		private final boolean nullable;
+		private final ReentrantLock lock = new ReentrantLock();
+		private volatile Entry<T> entry = Entry.empty();
+
+		private Member(LazyGroup group, Supplier<T> supplier, boolean nullable)
+		{
+			this.group = group;
+			this.supplier = supplier;
+			this.nullable = nullable;
+		}
+
+		@Nullable
+		@Override
+		public T get()
+		{
+			Entry<T> current = entry;
+
+			if(current.loaded && current.epoch == group.epoch())
+				return current.value;
+			if(lock.isHeldByCurrentThread())
+				throw new IllegalStateException("Recursive initialization of Lazy");
+
+			lock.lock();
+
+			try
+			{
+				// read the epoch before computing, so an invalidation during the computation forces a recompute
+				long epoch = group.epoch();
+				current = entry;
+
+				if(current.loaded && current.epoch == epoch)
+					return current.value;
+
+				T value = supplier.get();
+
+				if(!nullable)
+					Objects.requireNonNull(value, "Unexpected null value from supplier");
+
+				// a failed CAS means this member was invalidated mid load, hand the result to this caller but do not cache it
+				ENTRY.compareAndSet(this, current, new Entry<>(value, true, epoch));
+				return value;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void invalidate()
+		{
+			entry = Entry.empty();
+		}
+	}
+
+	private static final class Entry<T>
+	{
+		@Nullable private final T value;
+		private final boolean loaded;
+		private final long epoch;
+
+		private Entry(@Nullable T value, boolean loaded, long epoch)
+		{
+			this.value = value;
+			this.loaded = loaded;
+			this.epoch = epoch;
+		}
+
+		// a new instance every time, the identity of an empty entry tells invalidations apart
+		private static <T> Entry<T> empty()
+		{
+			return new Entry<>(null, false, 0L);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package xyz.apex.java.utility.api.lazy;
+
+import xyz.apex.java.utility.api.LazyLong;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Fixed size, concurrent (Thread safe) array of primitive longs whose elements are lazily computed on first access.
+ * <br>
+ * Values are stored in a single backing {@code long[]} alongside a {@code long[]} of per slot stamps,
+ * no object is allocated per slot and values are never boxed.
+ * A stamp holds the generation of its slot, bumped by every invalidation, and whether the slot is empty, being written or loaded.
+ * <br>
+ * Slots are published using CAS on their stamp, under contention the loader may be invoked more than once for a slot,
+ * but only a single value is ever published per generation and a published value never changes until invalidated.
+ * A load which started before its slot was invalidated returns its value to the caller but does not publish it.
+ *
+ * @see LazyArray
+ * @see LazyLong
+ */
+public final class LazyLongArray
+{
+	private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+	// low bits of a stamp hold the slot state, the remaining bits its generation
+	private static final long STATE_MASK = 3L;
+	private static final long EMPTY = 0L;
+	private static final long WRITING = 1L;
+	private static final long LOADED = 2L;
+
+	private final IntToLongFunction loader;
+	private final long[] values;
+	private final long[] stamps;
+
+	/**
+	 * Creates a new {@link LazyLongArray}.
+	 *
+	 * @param length The number of slots in the array.
+	 * @param loader Function computing the element at a given index.
+	 * @throws NegativeArraySizeException if the length is negative
+	 */
+	public LazyLongArray(int length, IntToLongFunction loader)
+	{
+		this.loader = loader;
+
+		values = new long[length];
+		stamps = new long[length];
+	}
+
+	/**
+	 * Returns the element at the given index, computing it if it has not yet been computed.
+	 *
+	 * @param index Index of the element.
+	 * @return The element at the given index.
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public long get(int index)
+	{
+		Objects.checkIndex(index, values.length);
+
+		long expected = stamp(index);
+
+		if((expected & STATE_MASK) == LOADED)
+			return (long) LONGS.getOpaque(values, index);
+
+		long value = loader.applyAsLong(index);
+
+		for(;;)
+		{
+			long witness = (long) LONGS.compareAndExchange(stamps, index, expected, expected | WRITING);
+
+			if(witness == expected)
+			{
+				// the claim keeps every other writer out until the value is released by the loaded stamp
+				LONGS.setOpaque(values, index, value);
+				LONGS.setRelease(stamps, index, expected | LOADED);
+				return value;
+			}
+
+			// invalidated mid load, hand the result to this caller but do not publish it
+			if((witness & ~STATE_MASK) != expected)
+				return value;
+			// another load published first, its value wins
+			if((witness & STATE_MASK) == LOADED)
+				return (long) LONGS.getOpaque(values, index);
+
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Returns whether the element at the given index has been computed.
+	 *
+	 * @param index Index of the element.
+	 * @return Whether the element at the given index has been computed.
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public boolean isLoaded(int index)
+	{
+		Objects.checkIndex(index, values.length);
+		return ((long) LONGS.getAcquire(stamps, index) & STATE_MASK) == LOADED;
+	}
+
+	/**
+	 * Invalidates the element at the given index, the next access recomputes it.
+	 * <br>
+	 * Bumps the generation of the slot, a load already in flight for the slot is not published once it completes.
+	 *
+	 * @param index Index of the element.
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public void invalidate(int index)
+	{
+		Objects.checkIndex(index, values.length);
+
+		for(;;)
+		{
+			long current = stamp(index);
+
+			// the next generation, in the empty state
+			if(LONGS.compareAndSet(stamps, index, current, (current | STATE_MASK) + 1L))
+				return;
+		}
+	}
+
+	/**
+	 * Invalidates every element of this array.
+	 */
+	public void invalidateAll()
+	{
+		for(int i = 0; i < stamps.length; i++)
+		{
+			invalidate(i);
+		}
+	}
+
+	/**
+	 * Returns the number of slots in this array.
+	 *
+	 * @return The number of slots in this array.
+	 */
+	public int length()
+	{
+		return values.length;
+	}
+
+	// reads the stamp of a slot, waiting out a value being written, which is a single store
+	private long stamp(int index)
+	{
+		for(;;)
+		{
+			long stamp = (long) LONGS.getAcquire(stamps, index);
+
+			if((stamp & STATE_MASK) != WRITING)
+				return stamp;
+
+			Thread.onSpinWait();
+		}
+	}
+}
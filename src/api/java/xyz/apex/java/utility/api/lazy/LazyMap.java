@@ -0,0 +1,190 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Concurrent (Thread safe) map whose values are computed on demand without holding any lock of the map.
+ * <br>
+ * Unlike {@link ConcurrentHashMap#computeIfAbsent(Object, Function)}, which runs the mapping function while holding a lock
+ * shared with neighbouring keys, {@link #computeIfAbsent(Object, Function)} only briefly installs an uninitialized
+ * concurrent {@link Lazy} for the key and loads it outside of the map.
+ * Concurrent readers of the same key wait on that {@link Lazy} alone, readers of other keys never wait.
+ * <br>
+ * Loads which fail or produce {@code null} leave no mapping behind.
+ * {@link #invalidate(Object)} keeps the mapping but discards its value, a load in flight when invalidated is not cached,
+ * and {@link #remove(Object)} drops the mapping, a load in flight when removed completes for its waiters but is never installed.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @see Lazy
+ * @see AtomicNullableLazy
+ */
+public final class LazyMap<K, V>
+{
+	private final ConcurrentHashMap<K, AtomicNullableLazy<V>> map = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the value for the given key, computing it with the given mapping function if no mapping exists.
+	 * <br>
+	 * If the key is being computed by another thread, this waits for that computation rather than computing it again.
+	 * The mapping function runs outside of any lock of this map.
+	 *
+	 * @param key The key of the value.
+	 * @param mapping Function computing the value for the key, returning {@code null} to leave the key unmapped.
+	 * @return The value for the given key or {@code null} if the mapping function returned {@code null}.
+	 */
+	@Nullable
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping)
+	{
+		AtomicNullableLazy<V> lazy = map.get(key);
+
+		if(lazy == null)
+		{
+			AtomicNullableLazy<V> created = new AtomicNullableLazy<>(() -> mapping.apply(key), false);
+			lazy = map.putIfAbsent(key, created);
+
+			if(lazy == null)
+				lazy = created;
+		}
+
+		return load(key, lazy);
+	}
+
+	/**
+	 * Returns the value for the given key, waiting for it if it is being computed.
+	 * <br>
+	 * An invalidated mapping is recomputed using the mapping function it was created with.
+	 *
+	 * @param key The key of the value.
+	 * @return The value for the given key or {@code null} if no mapping exists or its computation failed.
+	 * @throws Error if the computation of the value failed with an {@link Error}, the mapping is removed
+	 */
+	@Nullable
+	public V get(K key)
+	{
+		AtomicNullableLazy<V> lazy = map.get(key);
+
+		if(lazy == null)
+			return null;
+
+		try
+		{
+			return load(key, lazy);
+		}
+		catch(RuntimeException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the value for the given key if it has been computed, without waiting or computing.
+	 *
+	 * @param key The key of the value.
+	 * @return The value for the given key or {@code null} if it has not been computed.
+	 */
+	@Nullable
+	public V getIfPresent(K key)
+	{
+		AtomicNullableLazy<V> lazy = map.get(key);
+		return lazy == null ? null : unwrap(lazy.peek(null));
+	}
+
+	/**
+	 * Returns whether a mapping exists for the given key, whether computed or being computed.
+	 *
+	 * @param key The key of the value.
+	 * @return Whether a mapping exists for the given key.
+	 */
+	public boolean containsKey(K key)
+	{
+		return map.containsKey(key);
+	}
+
+	/**
+	 * Discards the value for the given key but keeps its mapping, the next read recomputes it.
+	 *
+	 * @param key The key of the value.
+	 * @see Lazy#invalidate()
+	 */
+	public void invalidate(K key)
+	{
+		AtomicNullableLazy<V> lazy = map.get(key);
+
+		if(lazy != null)
+			lazy.invalidate();
+	}
+
+	/**
+	 * Discards every value of this map but keeps their mappings.
+	 */
+	public void invalidateAll()
+	{
+		map.values().forEach(Lazy::invalidate);
+	}
+
+	/**
+	 * Removes the mapping for the given key.
+	 *
+	 * @param key The key of the value.
+	 * @return The computed value for the given key or {@code null} if no value had been computed.
+	 */
+	@Nullable
+	public V remove(K key)
+	{
+		AtomicNullableLazy<V> lazy = map.remove(key);
+		return lazy == null ? null : unwrap(lazy.peek(null));
+	}
+
+	/**
+	 * Removes every mapping of this map.
+	 */
+	public void clear()
+	{
+		map.clear();
+	}
+
+	/**
+	 * Returns the number of mappings in this map, whether computed or being computed.
+	 *
+	 * @return The number of mappings in this map.
+	 */
+	public int size()
+	{
+		return map.size();
+	}
+
+	// loads which fail or produce null leave no mapping behind
+	@Nullable
+	private V load(K key, AtomicNullableLazy<V> lazy)
+	{
+		V value;
+
+		try
+		{
+			value = lazy.get();
+		}
+		catch(RuntimeException | Error e)
+		{
+			map.remove(key, lazy);
+			throw e;
+		}
+
+		if(value == null)
+			map.remove(key, lazy);
+
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Nullable
+	private V unwrap(@Nullable Object value)
+	{
+		return (V) value;
+	}
+}
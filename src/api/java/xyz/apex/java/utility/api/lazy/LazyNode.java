@@ -0,0 +1,363 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NullableSupplier;
+import xyz.apex.java.utility.api.tuple.Pair;
+import xyz.apex.java.utility.api.tuple.Quad;
+import xyz.apex.java.utility.api.tuple.Triple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A {@link Lazy} which is part of a dependency graph of {@link Lazy} objects.
+ * <br>
+ * Nodes are either sources, wrapping a plain {@link Lazy}, or derived from other nodes using
+ * {@link Lazy#map(Function)}, {@link Lazy#flatMap(Function)} or one of the {@code Lazy.combine} methods.
+ * Derived nodes are concurrent (Thread safe) and only recompute their value on demand.
+ * <br>
+ * Invalidating a node through {@link #invalidate()} also invalidates every node downstream of it, and only those nodes.
+ * Invalidating a wrapped {@link Lazy} directly bypasses the graph, so sources should be invalidated through their node,
+ * {@link #of(Lazy)} returns the same node for a given {@link Lazy} for as long as any node derived from it is reachable.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see #of(Lazy)
+ */
+public final class LazyNode<T> implements Lazy<T>
+{
+	// source nodes by the lazy they wrap, nodes are held weakly as each node strongly references its lazy
+	private static final Map<Lazy<?>, WeakReference<LazyNode<?>>> SOURCES = new WeakHashMap<>();
+
+	private final Lazy<T> delegate;
+	// dependents are held weakly so derived nodes which are no longer used can be collected
+	private final Set<LazyNode<?>> dependents = Collections.newSetFromMap(new WeakHashMap<>());
+
+	private LazyNode(Lazy<T> delegate)
+	{
+		this.delegate = delegate;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @see Lazy#get()
+	 */
+	@Nullable
+	@Override
+	public T get()
+	{
+		return delegate.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Every node downstream of this node is invalidated too, and recomputed on demand.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	@Override
+	public void invalidate()
+	{
+		Set<LazyNode<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		ArrayDeque<LazyNode<?>> queue = new ArrayDeque<>();
+		queue.add(this);
+
+		while(!queue.isEmpty())
+		{
+			LazyNode<?> node = queue.poll();
+
+			if(!visited.add(node))
+				continue;
+
+			node.delegate.invalidate();
+			queue.addAll(node.dependents());
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the nodes directly downstream of this node.
+	 *
+	 * @return A snapshot of the nodes directly downstream of this node.
+	 */
+	public Set<LazyNode<?>> dependents()
+	{
+		synchronized(dependents)
+		{
+			Set<LazyNode<?>> snapshot = Collections.newSetFromMap(new IdentityHashMap<>());
+			snapshot.addAll(dependents);
+			return snapshot;
+		}
+	}
+
+	private void addDependent(LazyNode<?> dependent)
+	{
+		synchronized(dependents)
+		{
+			dependents.add(dependent);
+		}
+	}
+
+	private void removeDependent(LazyNode<?> dependent)
+	{
+		synchronized(dependents)
+		{
+			dependents.remove(dependent);
+		}
+	}
+
+	/**
+	 * Returns the graph node for the given {@link Lazy}, wrapping it as a source node if it is not already a node.
+	 * <br>
+	 * Every call for the same {@link Lazy} returns the same source node, so invalidating it reaches every node derived from that {@link Lazy}.
+	 *
+	 * @param lazy The {@link Lazy} to get the graph node for.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return The graph node for the given {@link Lazy}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> LazyNode<T> of(Lazy<T> lazy)
+	{
+		if(lazy instanceof LazyNode<T> node)
+			return node;
+
+		synchronized(SOURCES)
+		{
+			WeakReference<LazyNode<?>> reference = SOURCES.get(lazy);
+			LazyNode<T> node = reference == null ? null : (LazyNode<T>) reference.get();
+
+			if(node == null)
+			{
+				node = new LazyNode<>(lazy);
+				SOURCES.put(lazy, new WeakReference<>(node));
+			}
+
+			return node;
+		}
+	}
+
+	/**
+	 * Creates a node whose value is the result of applying the given mapper to the value of the upstream {@link Lazy}.
+	 *
+	 * @param upstream The upstream {@link Lazy}.
+	 * @param mapper Function applied to the upstream value.
+	 * @param <T> The upstream object type.
+	 * @param <R> The backing object type for the derived {@link Lazy}.
+	 * @return A new derived node.
+	 * @see Lazy#map(Function)
+	 */
+	public static <T, R> LazyNode<R> map(Lazy<T> upstream, Function<? super T, ? extends R> mapper)
+	{
+		LazyNode<T> source = of(upstream);
+		return derive(() -> mapper.apply(source.get()), source);
+	}
+
+	/**
+	 * Creates a node whose value is the value of the {@link Lazy} returned by applying the given mapper to the value of the upstream {@link Lazy}.
+	 * <br>
+	 * The returned {@link Lazy} becomes an additional upstream of the derived node each time it is computed,
+	 * replacing the {@link Lazy} returned by the previous computation.
+	 *
+	 * @param upstream The upstream {@link Lazy}.
+	 * @param mapper Function applied to the upstream value.
+	 * @param <T> The upstream object type.
+	 * @param <R> The backing object type for the derived {@link Lazy}.
+	 * @return A new derived node.
+	 * @see Lazy#flatMap(Function)
+	 */
+	public static <T, R> LazyNode<R> flatMap(Lazy<T> upstream, Function<? super T, ? extends Lazy<? extends R>> mapper)
+	{
+		LazyNode<T> source = of(upstream);
+		FlatMapped<T, R> flatMapped = new FlatMapped<>(source, mapper);
+		LazyNode<R> node = new LazyNode<>(flatMapped);
+		flatMapped.node = node;
+		source.addDependent(node);
+		return node;
+	}
+
+	/**
+	 * Creates a node whose value is a {@link Pair} of the values of the given upstream lazies.
+	 *
+	 * @param first The first upstream {@link Lazy}.
+	 * @param second The second upstream {@link Lazy}.
+	 * @param <A> The first upstream object type.
+	 * @param <B> The second upstream object type.
+	 * @return A new derived node.
+	 * @see Lazy#combine(Lazy, Lazy)
+	 */
+	public static <A, B> LazyNode<Pair<A, B>> combine(Lazy<A> first, Lazy<B> second)
+	{
+		LazyNode<A> a = of(first);
+		LazyNode<B> b = of(second);
+		return derive(() -> Pair.createImmutable(a.get(), b.get()), a, b);
+	}
+
+	/**
+	 * Creates a node whose value is a {@link Triple} of the values of the given upstream lazies.
+	 *
+	 * @param first The first upstream {@link Lazy}.
+	 * @param second The second upstream {@link Lazy}.
+	 * @param third The third upstream {@link Lazy}.
+	 * @param <A> The first upstream object type.
+	 * @param <B> The second upstream object type.
+	 * @param <C> The third upstream object type.
+	 * @return A new derived node.
+	 * @see Lazy#combine(Lazy, Lazy, Lazy)
+	 */
+	public static <A, B, C> LazyNode<Triple<A, B, C>> combine(Lazy<A> first, Lazy<B> second, Lazy<C> third)
+	{
+		LazyNode<A> a = of(first);
+		LazyNode<B> b = of(second);
+		LazyNode<C> c = of(third);
+		return derive(() -> Triple.createImmutable(a.get(), b.get(), c.get()), a, b, c);
+	}
+
+	/**
+	 * Creates a node whose value is a {@link Quad} of the values of the given upstream lazies.
+	 *
+	 * @param first The first upstream {@link Lazy}.
+	 * @param second The second upstream {@link Lazy}.
+	 * @param third The third upstream {@link Lazy}.
+	 * @param fourth The fourth upstream {@link Lazy}.
+	 * @param <A> The first upstream object type.
+	 * @param <B> The second upstream object type.
+	 * @param <C> The third upstream object type.
+	 * @param <D> The fourth upstream object type.
+	 * @return A new derived node.
+	 * @see Lazy#combine(Lazy, Lazy, Lazy, Lazy)
+	 */
+	public static <A, B, C, D> LazyNode<Quad<A, B, C, D>> combine(Lazy<A> first, Lazy<B> second, Lazy<C> third, Lazy<D> fourth)
+	{
+		LazyNode<A> a = of(first);
+		LazyNode<B> b = of(second);
+		LazyNode<C> c = of(third);
+		LazyNode<D> d = of(fourth);
+		return derive(() -> Quad.createImmutable(a.get(), b.get(), c.get(), d.get()), a, b, c, d);
+	}
+
+	private static <R> LazyNode<R> derive(NullableSupplier<R> computation, LazyNode<?>... upstream)
+	{
+		// atomic lazies do not cache a load which was invalidated mid flight, so an upstream invalidation can never be lost
+		LazyNode<R> node = new LazyNode<>(new AtomicNullableLazy<>(computation, false));
+
+		for(LazyNode<?> source : upstream)
+		{
+			source.addDependent(node);
+		}
+
+		return node;
+	}
+
+	/**
+	 * Backing {@link Lazy} of a node created by {@link #flatMap(Lazy, Function)}.
+	 * <br>
+	 * Computations run one at a time under a lock and publish by CAS against the state they started from,
+	 * the edge to the inner lazy is only swapped once its computation is published,
+	 * a computation invalidated mid flight drops the edge it added instead.
+	 */
+	private static final class FlatMapped<T, R> implements Lazy<R>
+	{
+		private static final VarHandle STATE;
+
+		static
+		{
+			try
+			{
+				STATE = MethodHandles.lookup().findVarHandle(FlatMapped.class, "state", Object.class);
+			}
+			catch(ReflectiveOperationException e)
+			{
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private final LazyNode<T> source;
+		private final Function<? super T, ? extends Lazy<? extends R>> mapper;
+		private final ReentrantLock lock = new ReentrantLock();
+		// a Computed value, or a new plain object for every invalidation
+		private volatile Object state = new Object();
+		// the node backed by this lazy, set once right after construction
+		@Nullable private LazyNode<R> node = null;
+		// the inner node of the published computation, guarded by the lock
+		@Nullable private LazyNode<?> inner = null;
+
+		private FlatMapped(LazyNode<T> source, Function<? super T, ? extends Lazy<? extends R>> mapper)
+		{
+			this.source = source;
+			this.mapper = mapper;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Nullable
+		@Override
+		public R get()
+		{
+			if(state instanceof Computed<?> computed)
+				return (R) computed.value;
+			if(lock.isHeldByCurrentThread())
+				throw new IllegalStateException("Recursive initialization of Lazy");
+
+			lock.lock();
+
+			try
+			{
+				Object current = state;
+
+				if(current instanceof Computed<?> computed)
+					return (R) computed.value;
+
+				LazyNode<R> self = Objects.requireNonNull(node);
+				LazyNode<? extends R> next = of(mapper.apply(source.get()));
+				// added before reading, so an invalidation of the inner lazy mid computation reaches this node
+				next.addDependent(self);
+				R value = next.get();
+
+				if(STATE.compareAndSet(this, current, new Computed<>(value)))
+				{
+					// drop the edge to the previous inner lazy, so a long lived node does not accumulate stale upstreams
+					if(inner != null && inner != next)
+						inner.removeDependent(self);
+
+					inner = next;
+				}
+				else if(next != inner)
+					next.removeDependent(self);
+
+				return value;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void invalidate()
+		{
+			state = new Object();
+		}
+	}
+
+	private static final class Computed<R>
+	{
+		@Nullable private final R value;
+
+		private Computed(@Nullable R value)
+		{
+			this.value = value;
+		}
+	}
+}
\ No newline at end of file
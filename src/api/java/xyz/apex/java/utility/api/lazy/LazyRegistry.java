@@ -0,0 +1,168 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Registry of named {@link Lazy} objects which can be warmed up (initialized) ahead of first use.
+ * <br>
+ * Each {@link Lazy} may declare the names of the lazies it depends on.
+ * {@link #warmUp(Executor)} initializes all registered lazies in topological order,
+ * initializing independent lazies in parallel, so warming up takes roughly as long as the longest dependency chain
+ * rather than the sum of all loads.
+ *
+ * @see Lazy
+ */
+public final class LazyRegistry
+{
+	private final Map<String, Registration> registrations = new LinkedHashMap<>();
+
+	/**
+	 * Registers a {@link Lazy} under the given name.
+	 *
+	 * @param name Unique name of the {@link Lazy}.
+	 * @param lazy The {@link Lazy} to be registered.
+	 * @param dependencies Names of the lazies which must be initialized before this {@link Lazy}.
+	 * @param <L> The type of the {@link Lazy}.
+	 * @return The registered {@link Lazy}.
+	 * @throws IllegalArgumentException if a {@link Lazy} is already registered under the given name
+	 */
+	public synchronized <L extends Lazy<?>> L register(String name, L lazy, String... dependencies)
+	{
+		if(registrations.containsKey(name))
+			throw new IllegalArgumentException("Lazy already registered with name: " + name);
+
+		registrations.put(name, new Registration(name, lazy, List.of(dependencies)));
+		return lazy;
+	}
+
+	/**
+	 * Returns the {@link Lazy} registered under the given name.
+	 *
+	 * @param name Name of the {@link Lazy}.
+	 * @return The {@link Lazy} registered under the given name or {@code null} if no such {@link Lazy} exists.
+	 */
+	@Nullable
+	public synchronized Lazy<?> get(String name)
+	{
+		Registration registration = registrations.get(name);
+		return registration == null ? null : registration.lazy;
+	}
+
+	/**
+	 * Returns the names of all registered lazies, in registration order.
+	 *
+	 * @return The names of all registered lazies.
+	 */
+	public synchronized Set<String> names()
+	{
+		return Collections.unmodifiableSet(new LinkedHashSet<>(registrations.keySet()));
+	}
+
+	/**
+	 * Initializes every registered {@link Lazy} on the given {@link Executor}.
+	 * <br>
+	 * A {@link Lazy} is only initialized once all of its dependencies have been initialized,
+	 * lazies which do not depend on each other are initialized in parallel.
+	 * If a {@link Lazy} fails to initialize, the lazies depending on it are skipped and the returned future completes exceptionally.
+	 *
+	 * @param executor The {@link Executor} used to initialize the lazies.
+	 * @return Future completed with the time taken to initialize each {@link Lazy}, in topological order.
+	 * @throws IllegalStateException if a dependency is not registered or the dependencies contain a cycle
+	 */
+	public CompletableFuture<Map<String, Duration>> warmUp(Executor executor)
+	{
+		List<Registration> order = topologicalOrder();
+		Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+		Map<String, Duration> timings = new ConcurrentHashMap<>();
+
+		for(Registration registration : order)
+		{
+			CompletableFuture<?>[] dependencies = registration.dependencies.stream().map(futures::get).toArray(CompletableFuture[]::new);
+
+			futures.put(registration.name, CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+				long start = System.nanoTime();
+				registration.lazy.get();
+				timings.put(registration.name, Duration.ofNanos(System.nanoTime() - start));
+			}, executor));
+		}
+
+		return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+			Map<String, Duration> ordered = new LinkedHashMap<>();
+			order.forEach(registration -> ordered.put(registration.name, timings.get(registration.name)));
+			return Collections.unmodifiableMap(ordered);
+		});
+	}
+
+	private synchronized List<Registration> topologicalOrder()
+	{
+		Map<String, Integer> inDegree = new HashMap<>();
+		Map<String, List<Registration>> dependents = new HashMap<>();
+
+		for(Registration registration : registrations.values())
+		{
+			inDegree.put(registration.name, registration.dependencies.size());
+
+			for(String dependency : registration.dependencies)
+			{
+				if(!registrations.containsKey(dependency))
+					throw new IllegalStateException("Lazy '" + registration.name + "' depends on unregistered Lazy: " + dependency);
+
+				dependents.computeIfAbsent(dependency, name -> new ArrayList<>()).add(registration);
+			}
+		}
+
+		ArrayDeque<Registration> ready = new ArrayDeque<>();
+		List<Registration> order = new ArrayList<>(registrations.size());
+		registrations.values().stream().filter(registration -> registration.dependencies.isEmpty()).forEach(ready::add);
+
+		while(!ready.isEmpty())
+		{
+			Registration registration = ready.poll();
+			order.add(registration);
+
+			for(Registration dependent : dependents.getOrDefault(registration.name, List.of()))
+			{
+				if(inDegree.merge(dependent.name, -1, Integer::sum) == 0)
+					ready.add(dependent);
+			}
+		}
+
+		if(order.size() != registrations.size())
+		{
+			List<String> cyclic = registrations.keySet().stream().filter(name -> inDegree.get(name) > 0).toList();
+			throw new IllegalStateException("Cyclic Lazy dependencies involving: " + cyclic);
+		}
+
+		return order;
+	}
+
+	private static final class Registration
+	{
+		private final String name;
+		private final Lazy<?> lazy;
+		private final List<String> dependencies;
+
+		private Registration(String name, Lazy<?> lazy, List<String> dependencies)
+		{
+			this.name = name;
+			this.lazy = lazy;
+			this.dependencies = dependencies;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,385 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+import xyz.apex.java.utility.api.nullness.NullableSupplier;
+import xyz.apex.java.utility.api.nullness.NullableType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in statistics for {@link Lazy} objects, recording hits, misses, loads, load failures, invalidations and load latency.
+ * <br>
+ * Lazies are created through {@link #of(String, NotNullSupplier, Function)} or {@link #ofNullable(String, NullableSupplier, Function)},
+ * which wrap the supplier passed to any {@link Lazy} factory and decorate the resulting {@link Lazy}.
+ * All counters are striped, so recording never contends on the read path.
+ * Lazies sharing a name are aggregated into the same statistics.
+ *
+ * @see Lazy
+ * @see Snapshot
+ * @see #create()
+ */
+public final class LazyStats
+{
+	private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+	private LazyStats()
+	{
+	}
+
+	/**
+	 * Creates a new {@link Lazy} recording its statistics under the given name.
+	 * <br>
+	 * For example {@code stats.of("config", this::loadConfig, Lazy::ofAtomic)}.
+	 *
+	 * @param name The name statistics are recorded under.
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param factory Factory creating the underlying {@link Lazy} from the instrumented supplier.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link Lazy} recording its statistics.
+	 */
+	public <@NotNullType T> Lazy<T> of(String name, NotNullSupplier<T> supplier, Function<? super NotNullSupplier<T>, ? extends Lazy<T>> factory)
+	{
+		Recorder recorder = recorder(name);
+		NotNullSupplier<T> instrumented = () -> recorder.load(supplier);
+		return new RecordingLazy<>(recorder, factory.apply(instrumented));
+	}
+
+	/**
+	 * Creates a new {@link Lazy} that allows returning null values, recording its statistics under the given name.
+	 *
+	 * @param name The name statistics are recorded under.
+	 * @param supplier The backing {@link NullableSupplier Supplier} used to retrieve values from.
+	 * @param factory Factory creating the underlying {@link Lazy} from the instrumented supplier.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link Lazy} recording its statistics.
+	 */
+	public <@NullableType T> Lazy<T> ofNullable(String name, NullableSupplier<T> supplier, Function<? super NullableSupplier<T>, ? extends Lazy<T>> factory)
+	{
+		Recorder recorder = recorder(name);
+		NullableSupplier<T> instrumented = () -> recorder.load(supplier);
+		return new RecordingLazy<>(recorder, factory.apply(instrumented));
+	}
+
+	/**
+	 * Returns a {@link Snapshot} of the statistics recorded under the given name.
+	 *
+	 * @param name The name statistics are recorded under.
+	 * @return A {@link Snapshot} of the statistics, empty if nothing was recorded under the given name.
+	 */
+	public Snapshot snapshot(String name)
+	{
+		Recorder recorder = recorders.get(name);
+		return recorder == null ? Snapshot.EMPTY : recorder.snapshot();
+	}
+
+	/**
+	 * Returns {@link Snapshot Snapshots} of the statistics of every name, sorted by name.
+	 *
+	 * @return {@link Snapshot Snapshots} of the statistics of every name.
+	 */
+	public Map<String, Snapshot> snapshots()
+	{
+		Map<String, Snapshot> snapshots = new TreeMap<>();
+		recorders.forEach((name, recorder) -> snapshots.put(name, recorder.snapshot()));
+		return Collections.unmodifiableMap(snapshots);
+	}
+
+	private Recorder recorder(String name)
+	{
+		return recorders.computeIfAbsent(name, k -> new Recorder());
+	}
+
+	/**
+	 * Creates a new, empty {@link LazyStats}.
+	 *
+	 * @return A new {@link LazyStats}.
+	 */
+	public static LazyStats create()
+	{
+		return new LazyStats();
+	}
+
+	private static final class Recorder
+	{
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder loadSuccesses = new LongAdder();
+		private final LongAdder loadFailures = new LongAdder();
+		private final LongAdder invalidations = new LongAdder();
+		private final LongAdder totalLoadNanos = new LongAdder();
+		private final LongAdder[] latencyBuckets = new LongAdder[Snapshot.BUCKETS];
+
+		private Recorder()
+		{
+			for(int i = 0; i < latencyBuckets.length; i++)
+			{
+				latencyBuckets[i] = new LongAdder();
+			}
+		}
+
+		@Nullable
+		private <T> T load(Supplier<T> supplier)
+		{
+			long start = System.nanoTime();
+			boolean success = false;
+
+			try
+			{
+				T value = supplier.get();
+				success = true;
+				return value;
+			}
+			finally
+			{
+				long elapsed = System.nanoTime() - start;
+				(success ? loadSuccesses : loadFailures).increment();
+				totalLoadNanos.add(elapsed);
+				latencyBuckets[Snapshot.bucket(elapsed)].increment();
+			}
+		}
+
+		private Snapshot snapshot()
+		{
+			long[] buckets = new long[latencyBuckets.length];
+
+			for(int i = 0; i < buckets.length; i++)
+			{
+				buckets[i] = latencyBuckets[i].sum();
+			}
+
+			return new Snapshot(requests.sum(), loadSuccesses.sum(), loadFailures.sum(), invalidations.sum(), totalLoadNanos.sum(), buckets);
+		}
+	}
+
+	private static final class RecordingLazy<T> implements Lazy<T>
+	{
+		private final Recorder recorder;
+		private final Lazy<T> delegate;
+
+		private RecordingLazy(Recorder recorder, Lazy<T> delegate)
+		{
+			this.recorder = recorder;
+			this.delegate = delegate;
+		}
+
+		@Nullable
+		@Override
+		public T get()
+		{
+			recorder.requests.increment();
+			return delegate.get();
+		}
+
+		@Override
+		public void invalidate()
+		{
+			recorder.invalidations.increment();
+			delegate.invalidate();
+		}
+	}
+
+	/**
+	 * Immutable point in time view of recorded {@link Lazy} statistics.
+	 * <br>
+	 * A request is counted as a miss when it called the supplier, and as a hit otherwise,
+	 * including requests which waited on a load started by another thread.
+	 * Load latencies are recorded in a histogram of power of two nanosecond buckets.
+	 */
+	public static final class Snapshot
+	{
+		private static final int BUCKETS = 64;
+		private static final Snapshot EMPTY = new Snapshot(0L, 0L, 0L, 0L, 0L, new long[BUCKETS]);
+
+		private final long requestCount;
+		private final long loadSuccessCount;
+		private final long loadFailureCount;
+		private final long invalidationCount;
+		private final long totalLoadNanos;
+		private final long[] latencyBuckets;
+
+		private Snapshot(long requestCount, long loadSuccessCount, long loadFailureCount, long invalidationCount, long totalLoadNanos, long[] latencyBuckets)
+		{
+			this.requestCount = requestCount;
+			this.loadSuccessCount = loadSuccessCount;
+			this.loadFailureCount = loadFailureCount;
+			this.invalidationCount = invalidationCount;
+			this.totalLoadNanos = totalLoadNanos;
+			this.latencyBuckets = latencyBuckets;
+		}
+
+		/**
+		 * Returns the number of times a value was requested.
+		 *
+		 * @return The number of times a value was requested.
+		 */
+		public long requestCount()
+		{
+			return requestCount;
+		}
+
+		/**
+		 * Returns the number of requests served without calling the supplier.
+		 *
+		 * @return The number of requests served without calling the supplier.
+		 */
+		public long hitCount()
+		{
+			// counters are summed independently, so a load may be observed before its request
+			return Math.max(0L, requestCount - missCount());
+		}
+
+		/**
+		 * Returns the number of requests which called the supplier.
+		 *
+		 * @return The number of requests which called the supplier.
+		 */
+		public long missCount()
+		{
+			return loadSuccessCount + loadFailureCount;
+		}
+
+		/**
+		 * Returns the ratio of requests served without calling the supplier, 1 if no value was requested.
+		 *
+		 * @return The ratio of requests served without calling the supplier.
+		 */
+		public double hitRate()
+		{
+			return requestCount == 0L ? 1D : (double) hitCount() / requestCount;
+		}
+
+		/**
+		 * Returns the number of times the supplier returned a value.
+		 *
+		 * @return The number of times the supplier returned a value.
+		 */
+		public long loadSuccessCount()
+		{
+			return loadSuccessCount;
+		}
+
+		/**
+		 * Returns the number of times the supplier threw an exception.
+		 *
+		 * @return The number of times the supplier threw an exception.
+		 */
+		public long loadFailureCount()
+		{
+			return loadFailureCount;
+		}
+
+		/**
+		 * Returns the number of times a value was invalidated.
+		 *
+		 * @return The number of times a value was invalidated.
+		 */
+		public long invalidationCount()
+		{
+			return invalidationCount;
+		}
+
+		/**
+		 * Returns the total time spent in the supplier, in nanoseconds.
+		 *
+		 * @return The total time spent in the supplier, in nanoseconds.
+		 */
+		public long totalLoadNanos()
+		{
+			return totalLoadNanos;
+		}
+
+		/**
+		 * Returns the average time spent in the supplier per load, in nanoseconds, 0 if nothing was loaded.
+		 *
+		 * @return The average time spent in the supplier per load, in nanoseconds.
+		 */
+		public double averageLoadNanos()
+		{
+			long loads = missCount();
+			return loads == 0L ? 0D : (double) totalLoadNanos / loads;
+		}
+
+		/**
+		 * Returns an upper bound of the given percentile of load latency, in nanoseconds, 0 if nothing was loaded.
+		 * <br>
+		 * Latencies are bucketed by powers of two, so the result is accurate to within a factor of two.
+		 *
+		 * @param percentile The percentile, between 0 and 100.
+		 * @return An upper bound of the given percentile of load latency, in nanoseconds.
+		 * @throws IllegalArgumentException if the percentile is not between 0 and 100
+		 */
+		public long loadLatencyPercentile(double percentile)
+		{
+			if(!(percentile >= 0D && percentile <= 100D))
+				throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+
+			long total = Arrays.stream(latencyBuckets).sum();
+
+			if(total == 0L)
+				return 0L;
+
+			long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100D));
+			long seen = 0L;
+
+			for(int i = 0; i < latencyBuckets.length; i++)
+			{
+				seen += latencyBuckets[i];
+
+				if(seen >= rank)
+					return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1L;
+			}
+
+			return Long.MAX_VALUE;
+		}
+
+		/**
+		 * Returns the number of loads per latency bucket, bucket {@code i} counting loads which took
+		 * between {@code 2^i} and {@code 2^(i + 1) - 1} nanoseconds, bucket 0 also counting loads which took 0 nanoseconds.
+		 *
+		 * @return The number of loads per latency bucket.
+		 */
+		public long[] loadLatencyHistogram()
+		{
+			return latencyBuckets.clone();
+		}
+
+		/**
+		 * Returns a new {@link Snapshot} holding the sum of the statistics of this and the given {@link Snapshot}.
+		 *
+		 * @param other The {@link Snapshot} to be added.
+		 * @return A new {@link Snapshot} holding the summed statistics.
+		 */
+		public Snapshot plus(Snapshot other)
+		{
+			long[] buckets = new long[BUCKETS];
+
+			for(int i = 0; i < BUCKETS; i++)
+			{
+				buckets[i] = latencyBuckets[i] + other.latencyBuckets[i];
+			}
+
+			return new Snapshot(requestCount + other.requestCount, loadSuccessCount + other.loadSuccessCount, loadFailureCount + other.loadFailureCount, invalidationCount + other.invalidationCount, totalLoadNanos + other.totalLoadNanos, buckets);
+		}
+
+		@Override
+		public String toString()
+		{
+			return "Snapshot{requests=%d, hits=%d, misses=%d, loadFailures=%d, invalidations=%d, averageLoadNanos=%.0f}".formatted(requestCount, hitCount(), missCount(), loadFailureCount, invalidationCount, averageLoadNanos());
+		}
+
+		private static int bucket(long nanos)
+		{
+			return nanos <= 0L ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+		}
+	}
+}
@@ -0,0 +1,274 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Records the order named {@link Lazy} objects are first used in after startup, and replays it on the next startup.
+ * <br>
+ * A {@link Recorder} logs each tracked {@link Lazy} the first time it is read within a window after the recorder was created,
+ * then saves the names to a small local trace file.
+ * On the next startup {@link #prefetch(Path, Function, Executor, int)} initializes the lazies listed in the trace file in the background,
+ * turning cold start misses into background work without maintaining a warm-up list by hand.
+ *
+ * @see Lazy
+ * @see LazyRegistry
+ * @see #recorder(Path, Duration)
+ */
+public final class LazyTrace
+{
+	private static final String HEADER = "# lazy-trace v1";
+
+	private LazyTrace()
+	{
+	}
+
+	/**
+	 * Creates a new {@link Recorder} recording first uses within the given window, starting now.
+	 *
+	 * @param file The path of the trace file.
+	 * @param window How long after now first uses are recorded.
+	 * @return A new {@link Recorder}.
+	 * @throws IllegalArgumentException if the window is not positive
+	 */
+	public static Recorder recorder(Path file, Duration window)
+	{
+		if(window.isNegative() || window.isZero())
+			throw new IllegalArgumentException("Trace window must be positive: " + window);
+
+		return new Recorder(file, window.toNanos());
+	}
+
+	/**
+	 * Initializes, in the background, every {@link Lazy} listed in the given trace file, in recorded order.
+	 * <br>
+	 * Names which can no longer be resolved are skipped, as are lazies which fail to initialize,
+	 * they are initialized (and fail) again on first use as usual.
+	 * A missing or unreadable trace file prefetches nothing.
+	 * <br>
+	 * For example {@code LazyTrace.prefetch(file, registry::get, executor, 4)}.
+	 *
+	 * @param file The path of the trace file.
+	 * @param lookup Function resolving a recorded name to its {@link Lazy}, returning {@code null} for unknown names.
+	 * @param executor The {@link Executor} used to initialize the lazies.
+	 * @param parallelism The maximum number of lazies initialized at the same time.
+	 * @return Future completed with the number of lazies initialized.
+	 * @throws IllegalArgumentException if the parallelism is not positive
+	 */
+	public static CompletableFuture<Integer> prefetch(Path file, Function<String, ? extends Lazy<?>> lookup, Executor executor, int parallelism)
+	{
+		if(parallelism <= 0)
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+
+		List<String> names = read(file);
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger initialized = new AtomicInteger();
+		CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, Math.max(1, names.size()))];
+
+		for(int i = 0; i < workers.length; i++)
+		{
+			// each worker takes the next name in recorded order, bounding parallelism without a queue per lazy
+			workers[i] = CompletableFuture.runAsync(() -> {
+				for(int index = next.getAndIncrement(); index < names.size(); index = next.getAndIncrement())
+				{
+					if(prefetch(lookup.apply(names.get(index))))
+						initialized.incrementAndGet();
+				}
+			}, executor);
+		}
+
+		return CompletableFuture.allOf(workers).thenApply(ignored -> initialized.get());
+	}
+
+	private static boolean prefetch(@Nullable Lazy<?> lazy)
+	{
+		if(lazy == null)
+			return false;
+
+		try
+		{
+			lazy.get();
+			return true;
+		}
+		catch(RuntimeException e)
+		{
+			return false;
+		}
+	}
+
+	private static List<String> read(Path file)
+	{
+		try
+		{
+			if(!Files.isRegularFile(file))
+				return List.of();
+
+			List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+
+			if(lines.isEmpty() || !HEADER.equals(lines.get(0)))
+				return List.of();
+
+			return lines.subList(1, lines.size());
+		}
+		catch(IOException | UncheckedIOException e)
+		{
+			// a corrupt trace only costs the prefetch
+			return List.of();
+		}
+	}
+
+	/**
+	 * Recorder logging the order tracked {@link Lazy} objects are first used in during its window.
+	 */
+	public static final class Recorder
+	{
+		private final Path file;
+		private final long deadline;
+		private final ConcurrentLinkedQueue<String> trace = new ConcurrentLinkedQueue<>();
+
+		private Recorder(Path file, long windowNanos)
+		{
+			this.file = file;
+
+			deadline = System.nanoTime() + windowNanos;
+		}
+
+		/**
+		 * Tracks the given {@link Lazy} under the given name.
+		 * <br>
+		 * For example {@code registry.register("config", recorder.track("config", lazy))}.
+		 *
+		 * @param name The name recorded in the trace file.
+		 * @param lazy The {@link Lazy} to be tracked.
+		 * @param <T> Type of value to lazily get.
+		 * @return A {@link Lazy} recording its first use, to be used in place of the given {@link Lazy}.
+		 * @throws IllegalArgumentException if the name contains a line break
+		 */
+		public <T> Lazy<T> track(String name, Lazy<T> lazy)
+		{
+			if(name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0)
+				throw new IllegalArgumentException("Traced Lazy names must not contain line breaks: " + name);
+
+			return new TrackedLazy<>(this, name, lazy);
+		}
+
+		/**
+		 * Returns whether first uses are still being recorded.
+		 *
+		 * @return Whether first uses are still being recorded.
+		 */
+		public boolean isRecording()
+		{
+			return System.nanoTime() - deadline < 0L;
+		}
+
+		/**
+		 * Writes the names recorded so far to the trace file, replacing any previous trace.
+		 *
+		 * @throws UncheckedIOException if the trace file could not be written
+		 */
+		public void save()
+		{
+			List<String> lines = new ArrayList<>();
+			lines.add(HEADER);
+			lines.addAll(trace);
+
+			try
+			{
+				Path directory = file.toAbsolutePath().getParent();
+				Files.createDirectories(directory);
+				Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+				try
+				{
+					Files.write(temp, lines, StandardCharsets.UTF_8);
+					Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				}
+				finally
+				{
+					Files.deleteIfExists(temp);
+				}
+			}
+			catch(IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Schedules {@link #save()} to run on the given scheduler once the window closes.
+		 *
+		 * @param scheduler The scheduler used to save the trace.
+		 * @return Future completed once the trace has been saved.
+		 */
+		public CompletableFuture<Void> saveWhenDone(ScheduledExecutorService scheduler)
+		{
+			CompletableFuture<Void> future = new CompletableFuture<>();
+
+			scheduler.schedule(() -> {
+				try
+				{
+					save();
+					future.complete(null);
+				}
+				catch(Throwable t)
+				{
+					future.completeExceptionally(t);
+				}
+			}, Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+			return future;
+		}
+	}
+
+	private static final class TrackedLazy<T> implements Lazy<T>
+	{
+		private final Recorder recorder;
+		private final String name;
+		private final Lazy<T> delegate;
+		private final AtomicBoolean used = new AtomicBoolean(false);
+
+		private TrackedLazy(Recorder recorder, String name, Lazy<T> delegate)
+		{
+			this.recorder = recorder;
+			this.name = name;
+			this.delegate = delegate;
+		}
+
+		@Nullable
+		@Override
+		public T get()
+		{
+			// the plain read keeps the common path free of writes and clock reads once the first use has been seen
+			if(!used.get() && used.compareAndSet(false, true) && recorder.isRecording())
+				recorder.trace.add(name);
+
+			return delegate.get();
+		}
+
+		@Override
+		public void invalidate()
+		{
+			delegate.invalidate();
+		}
+	}
+}
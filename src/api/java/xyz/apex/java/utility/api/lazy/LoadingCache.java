@@ -0,0 +1,742 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Bounded, concurrent (Thread safe) cache of values lazily loaded by key.
+ * <br>
+ * Each key is loaded at most once at a time, concurrent readers of a key being loaded wait for that single load,
+ * following the semantics of the concurrent {@link Lazy} implementations.
+ * The cache is bounded by either a maximum number of entries or a maximum total weight,
+ * and evicts using W-TinyLFU: new entries enter a small LRU window, and are only admitted into the main
+ * segmented LRU space when a frequency sketch estimates they are used more often than the entry they would evict.
+ * This retains frequently used entries through scans and bursts of one-off keys, where plain LRU would flush them.
+ * <br>
+ * Reads are recorded in striped lossy buffers and replayed against the eviction policy in batches,
+ * so reads never wait on the eviction lock.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @see Lazy
+ * @see #builder(Function)
+ */
+public final class LoadingCache<K, V>
+{
+	private static final int READ_BUFFER_SIZE = 16;
+	private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+	private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+	private static final int READ_BUFFER_STRIPES = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+	private final Function<? super K, ? extends V> loader;
+	@Nullable private final ToLongBiFunction<? super K, ? super V> weigher;
+	private final long maximum;
+	private final long windowMaximum;
+	private final long protectedMaximum;
+	private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+	private final ReadBuffer[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	// eviction policy, guarded by evictionLock
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	private final FrequencySketch sketch;
+	private final AccessDeque<K, V> window = new AccessDeque<>();
+	private final AccessDeque<K, V> probation = new AccessDeque<>();
+	private final AccessDeque<K, V> protectedSpace = new AccessDeque<>();
+	private long windowWeight = 0L;
+	private long protectedWeight = 0L;
+	private long totalWeight = 0L;
+
+	private LoadingCache(Builder<K, V> builder)
+	{
+		loader = builder.loader;
+		weigher = builder.weigher;
+		maximum = builder.maximum;
+		// 1% admission window and 80% of the main space protected, the defaults of the W-TinyLFU paper
+		windowMaximum = Math.max(1L, maximum / 100L);
+		protectedMaximum = (long) ((maximum - windowMaximum) * .8D);
+		sketch = new FrequencySketch(weigher == null ? maximum : 1024L);
+
+		for(int i = 0; i < readBuffers.length; i++)
+		{
+			readBuffers[i] = new ReadBuffer();
+		}
+	}
+
+	/**
+	 * Returns the value for the given key, loading it if required.
+	 * <br>
+	 * If the key is being loaded by another thread, this waits for that load rather than loading it again.
+	 *
+	 * @param key The key of the value.
+	 * @return The value for the given key.
+	 * @throws NullPointerException if the loader returned null
+	 */
+	public V get(K key)
+	{
+		Node<K, V> node = data.get(key);
+
+		if(node == null)
+		{
+			Node<K, V> created = new Node<>(key, this);
+			node = data.putIfAbsent(key, created);
+
+			if(node == null)
+			{
+				misses.increment();
+				return load(created);
+			}
+		}
+
+		hits.increment();
+		V value = node.lazy.get();
+		afterRead(node);
+		return value;
+	}
+
+	/**
+	 * Returns the value for the given key if it is loaded, without loading it.
+	 *
+	 * @param key The key of the value.
+	 * @return The value for the given key or {@code null} if it is not loaded.
+	 */
+	@Nullable
+	public V getIfPresent(K key)
+	{
+		Node<K, V> node = data.get(key);
+
+		if(node == null || !node.loaded)
+		{
+			misses.increment();
+			return null;
+		}
+
+		hits.increment();
+		afterRead(node);
+		return node.lazy.get();
+	}
+
+	/**
+	 * Returns a {@link Lazy} view of the value for the given key.
+	 * <br>
+	 * Reading the returned {@link Lazy} is equivalent to {@link #get(Object)}, invalidating it to {@link #invalidate(Object)}.
+	 *
+	 * @param key The key of the value.
+	 * @return A {@link Lazy} view of the value for the given key.
+	 */
+	public Lazy<V> asLazy(K key)
+	{
+		return new Lazy<>()
+		{
+			@Override
+			public V get()
+			{
+				return LoadingCache.this.get(key);
+			}
+
+			@Override
+			public void invalidate()
+			{
+				LoadingCache.this.invalidate(key);
+			}
+		};
+	}
+
+	/**
+	 * Discards the value for the given key, the next read loads it again.
+	 *
+	 * @param key The key of the value.
+	 */
+	public void invalidate(K key)
+	{
+		Node<K, V> node = data.remove(key);
+
+		if(node == null)
+			return;
+
+		evictionLock.lock();
+
+		try
+		{
+			unlink(node);
+		}
+		finally
+		{
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Discards every value of this cache.
+	 */
+	public void invalidateAll()
+	{
+		data.keySet().forEach(this::invalidate);
+	}
+
+	/**
+	 * Returns the approximate number of entries in this cache, including entries being loaded.
+	 *
+	 * @return The approximate number of entries in this cache.
+	 */
+	public long estimatedSize()
+	{
+		return data.mappingCount();
+	}
+
+	/**
+	 * Returns the total number of reads which found an existing entry.
+	 *
+	 * @return The total number of reads which found an existing entry.
+	 */
+	public long hitCount()
+	{
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the total number of reads which did not find an existing entry.
+	 *
+	 * @return The total number of reads which did not find an existing entry.
+	 */
+	public long missCount()
+	{
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the total number of entries evicted to stay within the bound of this cache.
+	 *
+	 * @return The total number of entries evicted.
+	 */
+	public long evictionCount()
+	{
+		return evictions.sum();
+	}
+
+	/**
+	 * Replays all buffered reads against the eviction policy and evicts entries as required.
+	 * <br>
+	 * This happens automatically as the cache is used, and is only useful to observe an up to date policy.
+	 */
+	public void cleanUp()
+	{
+		evictionLock.lock();
+
+		try
+		{
+			drainReadBuffers();
+			evict();
+		}
+		finally
+		{
+			evictionLock.unlock();
+		}
+	}
+
+	private V load(Node<K, V> node)
+	{
+		V value;
+
+		try
+		{
+			value = node.lazy.get();
+		}
+		catch(RuntimeException | Error e)
+		{
+			// failed loads are not cached, the next read loads again
+			data.remove(node.key, node);
+			throw e;
+		}
+
+		node.weight = weigher == null ? 1L : Math.max(0L, weigher.applyAsLong(node.key, value));
+		node.loaded = true;
+
+		evictionLock.lock();
+
+		try
+		{
+			// the entry may have been invalidated while loading, in which case it never enters the policy
+			if(data.get(node.key) == node)
+			{
+				drainReadBuffers();
+				onAdd(node);
+				evict();
+			}
+		}
+		finally
+		{
+			evictionLock.unlock();
+		}
+
+		return value;
+	}
+
+	private void afterRead(Node<K, V> node)
+	{
+		ReadBuffer buffer = readBuffers[stripe()];
+		long pending = buffer.offer(node);
+
+		if(pending >= READ_BUFFER_DRAIN_THRESHOLD && evictionLock.tryLock())
+		{
+			try
+			{
+				drainReadBuffers();
+			}
+			finally
+			{
+				evictionLock.unlock();
+			}
+		}
+	}
+
+	private void drainReadBuffers()
+	{
+		for(ReadBuffer buffer : readBuffers)
+		{
+			buffer.drainTo(this);
+		}
+	}
+
+	private void onAdd(Node<K, V> node)
+	{
+		sketch.ensureCapacity(data.mappingCount());
+		sketch.increment(node.key);
+
+		node.queue = Node.WINDOW;
+		window.addLast(node);
+		windowWeight += node.weight;
+		totalWeight += node.weight;
+	}
+
+	private void onAccess(Node<K, V> node)
+	{
+		if(node.queue == Node.NONE)
+			return;
+
+		sketch.increment(node.key);
+
+		if(node.queue == Node.WINDOW)
+			window.moveToLast(node);
+		else if(node.queue == Node.PROTECTED)
+			protectedSpace.moveToLast(node);
+		else
+		{
+			// a second access while on probation promotes the entry into the protected space
+			probation.remove(node);
+			node.queue = Node.PROTECTED;
+			protectedSpace.addLast(node);
+			protectedWeight += node.weight;
+
+			while(protectedWeight > protectedMaximum)
+			{
+				Node<K, V> demoted = Objects.requireNonNull(protectedSpace.pollFirst());
+				protectedWeight -= demoted.weight;
+				demoted.queue = Node.PROBATION;
+				probation.addLast(demoted);
+			}
+		}
+	}
+
+	private void evict()
+	{
+		// entries overflowing the window become candidates for admission into the main space
+		while(windowWeight > windowMaximum)
+		{
+			Node<K, V> candidate = Objects.requireNonNull(window.pollFirst());
+			windowWeight -= candidate.weight;
+			candidate.queue = Node.PROBATION;
+			probation.addLast(candidate);
+		}
+
+		while(totalWeight > maximum)
+		{
+			Node<K, V> victim = probation.peekFirst();
+			Node<K, V> candidate = probation.peekLast();
+
+			if(victim == null)
+			{
+				victim = protectedSpace.peekFirst();
+
+				if(victim == null)
+					victim = window.peekFirst();
+				if(victim == null)
+					return;
+
+				evictNode(victim);
+			}
+			// the most recent candidate only displaces the least recently used entry of the main space if it is used more often
+			else if(candidate == victim || sketch.frequency(candidate.key) > sketch.frequency(victim.key))
+				evictNode(victim);
+			else
+				evictNode(Objects.requireNonNull(candidate));
+		}
+	}
+
+	private void evictNode(Node<K, V> node)
+	{
+		unlink(node);
+		data.remove(node.key, node);
+		evictions.increment();
+	}
+
+	private void unlink(Node<K, V> node)
+	{
+		if(node.queue == Node.NONE)
+			return;
+
+		if(node.queue == Node.WINDOW)
+		{
+			window.remove(node);
+			windowWeight -= node.weight;
+		}
+		else if(node.queue == Node.PROTECTED)
+		{
+			protectedSpace.remove(node);
+			protectedWeight -= node.weight;
+		}
+		else
+			probation.remove(node);
+
+		totalWeight -= node.weight;
+		node.queue = Node.NONE;
+	}
+
+	private static int stripe()
+	{
+		int hash = Thread.currentThread().hashCode() * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & (READ_BUFFER_STRIPES - 1);
+	}
+
+	private static int ceilingPowerOfTwo(int value)
+	{
+		return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link LoadingCache}.
+	 *
+	 * @param loader Function loading the value for a key, must never return null.
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @return A new {@link Builder}.
+	 */
+	public static <K, V> Builder<K, V> builder(Function<? super K, ? extends V> loader)
+	{
+		return new Builder<>(loader);
+	}
+
+	private static final class Node<K, V>
+	{
+		private static final byte NONE = 0;
+		private static final byte WINDOW = 1;
+		private static final byte PROBATION = 2;
+		private static final byte PROTECTED = 3;
+
+		private final K key;
+		private final AtomicNotNullLazy<V> lazy;
+		private volatile boolean loaded = false;
+
+		// guarded by the eviction lock, weight is written before the node enters the policy
+		private long weight = 0L;
+		private byte queue = NONE;
+		@Nullable private Node<K, V> prev = null;
+		@Nullable private Node<K, V> next = null;
+
+		private Node(K key, LoadingCache<K, V> cache)
+		{
+			this.key = key;
+
+			lazy = new AtomicNotNullLazy<>(() -> cache.loader.apply(key), false);
+		}
+	}
+
+	/**
+	 * Intrusive doubly linked access order queue, least recently used first.
+	 */
+	private static final class AccessDeque<K, V>
+	{
+		@Nullable private Node<K, V> head = null;
+		@Nullable private Node<K, V> tail = null;
+
+		@Nullable
+		private Node<K, V> peekFirst()
+		{
+			return head;
+		}
+
+		@Nullable
+		private Node<K, V> peekLast()
+		{
+			return tail;
+		}
+
+		@Nullable
+		private Node<K, V> pollFirst()
+		{
+			Node<K, V> first = head;
+
+			if(first != null)
+				remove(first);
+
+			return first;
+		}
+
+		private void addLast(Node<K, V> node)
+		{
+			node.prev = tail;
+			node.next = null;
+
+			if(tail == null)
+				head = node;
+			else
+				tail.next = node;
+
+			tail = node;
+		}
+
+		private void remove(Node<K, V> node)
+		{
+			if(node.prev == null)
+				head = node.next;
+			else
+				node.prev.next = node.next;
+
+			if(node.next == null)
+				tail = node.prev;
+			else
+				node.next.prev = node.prev;
+
+			node.prev = null;
+			node.next = null;
+		}
+
+		private void moveToLast(Node<K, V> node)
+		{
+			if(tail != node)
+			{
+				remove(node);
+				addLast(node);
+			}
+		}
+	}
+
+	/**
+	 * Lossy ring buffer of recent reads, full buffers drop reads as the policy only needs a sample.
+	 */
+	private static final class ReadBuffer
+	{
+		private final AtomicReferenceArray<Node<?, ?>> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+		private final AtomicLong writeCount = new AtomicLong();
+		private volatile long readCount = 0L;
+
+		// returns the number of reads pending in this buffer
+		private long offer(Node<?, ?> node)
+		{
+			long head = readCount;
+			long tail = writeCount.get();
+			long size = tail - head;
+
+			if(size < READ_BUFFER_SIZE && writeCount.compareAndSet(tail, tail + 1L))
+				slots.lazySet((int) tail & READ_BUFFER_MASK, node);
+
+			return size + 1L;
+		}
+
+		// guarded by the eviction lock
+		@SuppressWarnings("unchecked")
+		private <K, V> void drainTo(LoadingCache<K, V> cache)
+		{
+			long head = readCount;
+			long tail = writeCount.get();
+
+			for(; head != tail; head++)
+			{
+				int index = (int) head & READ_BUFFER_MASK;
+				Node<?, ?> node = slots.get(index);
+
+				// the slot has been claimed but not yet written, resume from here on the next drain
+				if(node == null)
+					break;
+
+				slots.lazySet(index, null);
+				cache.onAccess((Node<K, V>) node);
+			}
+
+			readCount = head;
+		}
+	}
+
+	/**
+	 * Count-min sketch of 4 bit counters estimating how often keys were used,
+	 * all counters are halved periodically so that the estimate favours recent use.
+	 */
+	private static final class FrequencySketch
+	{
+		private static final long[] SEEDS = { 0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L };
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private long[] table = new long[0];
+		private int sampleSize = 0;
+		private int additions = 0;
+
+		private FrequencySketch(long expectedSize)
+		{
+			ensureCapacity(expectedSize);
+		}
+
+		private void ensureCapacity(long expectedSize)
+		{
+			int capacity = ceilingPowerOfTwo((int) Math.min(Math.max(expectedSize, 16L), 1 << 26));
+
+			if(capacity <= table.length)
+				return;
+
+			table = new long[capacity];
+			sampleSize = 10 * capacity;
+			additions = 0;
+		}
+
+		private int frequency(Object key)
+		{
+			int hash = spread(key.hashCode());
+			int start = (hash & 3) << 2;
+			int frequency = Integer.MAX_VALUE;
+
+			for(int i = 0; i < 4; i++)
+			{
+				int index = indexOf(hash, i);
+				int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xFL);
+				frequency = Math.min(frequency, count);
+			}
+
+			return frequency;
+		}
+
+		private void increment(Object key)
+		{
+			int hash = spread(key.hashCode());
+			int start = (hash & 3) << 2;
+			boolean added = false;
+
+			for(int i = 0; i < 4; i++)
+			{
+				int index = indexOf(hash, i);
+				int offset = (start + i) << 2;
+				long mask = 0xFL << offset;
+
+				if((table[index] & mask) != mask)
+				{
+					table[index] += 1L << offset;
+					added = true;
+				}
+			}
+
+			if(added && ++additions == sampleSize)
+				reset();
+		}
+
+		private void reset()
+		{
+			for(int i = 0; i < table.length; i++)
+			{
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+
+			additions >>>= 1;
+		}
+
+		private int indexOf(int hash, int i)
+		{
+			long index = (hash + SEEDS[i]) * SEEDS[i];
+			index += index >>> 32;
+			return (int) index & (table.length - 1);
+		}
+
+		private static int spread(int hash)
+		{
+			hash = ((hash >>> 16) ^ hash) * 0x45D9F3B;
+			hash = ((hash >>> 16) ^ hash) * 0x45D9F3B;
+			return (hash >>> 16) ^ hash;
+		}
+	}
+
+	/**
+	 * Builder used to configure and create {@link LoadingCache} instances.
+	 *
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 */
+	public static final class Builder<K, V>
+	{
+		private final Function<? super K, ? extends V> loader;
+		@Nullable private ToLongBiFunction<? super K, ? super V> weigher = null;
+		private long maximum = -1L;
+
+		private Builder(Function<? super K, ? extends V> loader)
+		{
+			this.loader = loader;
+		}
+
+		/**
+		 * Bounds the cache to the given number of entries.
+		 *
+		 * @param maximumSize The maximum number of entries.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the size is not positive
+		 */
+		public Builder<K, V> maximumSize(long maximumSize)
+		{
+			if(maximumSize <= 0L)
+				throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+
+			maximum = maximumSize;
+			weigher = null;
+			return this;
+		}
+
+		/**
+		 * Bounds the cache to the given total weight of entries, as computed by the given weigher once an entry is loaded.
+		 *
+		 * @param maximumWeight The maximum total weight of entries.
+		 * @param weigher Function computing the weight of an entry, such as its retained size in bytes.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the weight is not positive
+		 */
+		public Builder<K, V> maximumWeight(long maximumWeight, ToLongBiFunction<? super K, ? super V> weigher)
+		{
+			if(maximumWeight <= 0L)
+				throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+
+			maximum = maximumWeight;
+			this.weigher = weigher;
+			return this;
+		}
+
+		/**
+		 * Builds a new {@link LoadingCache} from this {@link Builder}.
+		 *
+		 * @return A new {@link LoadingCache}.
+		 * @throws IllegalStateException if no maximum size or weight was set
+		 */
+		public LoadingCache<K, V> build()
+		{
+			if(maximum <= 0L)
+				throw new IllegalStateException("Maximum size or weight must be set");
+
+			return new LoadingCache<>(this);
+		}
+	}
+}
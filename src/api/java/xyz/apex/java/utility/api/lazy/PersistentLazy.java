@@ -0,0 +1,396 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.apache.commons.compress.compressors.CompressorException;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent (Thread safe) {@link Lazy} which persists its value to a local snapshot file,
+ * so the value does not need to be recomputed after a restart.
+ * <br>
+ * Snapshots are keyed on a caller supplied fingerprint of the inputs the value is derived from,
+ * a snapshot is only used while its fingerprint matches the current fingerprint.
+ * Snapshots which are missing, unreadable or stale fall back to the supplier, whose value is then written as the new snapshot.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see SnapshotCodec
+ * @see #builder(NotNullSupplier, SnapshotCodec, Path, String)
+ */
+public final class PersistentLazy<T> implements Lazy<T>, NotNullSupplier<T>
+{
+	private static final int MAGIC = 0x4C5A5953; // LZYS
+	private static final int FORMAT_VERSION = 1;
+	private static final VarHandle STATE;
+
+	static
+	{
+		try
+		{
+			STATE = MethodHandles.lookup().findVarHandle(PersistentLazy.class, "state", State.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final NotNullSupplier<T> supplier;
+	private final SnapshotCodec<T> codec;
+	private final Path file;
+	private final String fingerprint;
+	private final Compression compression;
+	private final ReentrantLock lock = new ReentrantLock();
+	private volatile State<T> state = new State<>(null, false, false);
+
+	private PersistentLazy(Builder<T> builder)
+	{
+		supplier = builder.supplier;
+		codec = builder.codec;
+		file = builder.file;
+		fingerprint = builder.fingerprint;
+		compression = builder.compression;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * The first call reads the snapshot file if its fingerprint matches, otherwise calls the supplier and writes a new snapshot.
+	 *
+	 * @see Lazy#get()
+	 */
+	@Override
+	public T get()
+	{
+		T localInstance = state.value;
+
+		if(localInstance != null)
+			return localInstance;
+
+		lock.lock();
+
+		try
+		{
+			State<T> current = state;
+			localInstance = current.value;
+
+			if(localInstance != null)
+				return localInstance;
+
+			localInstance = current.skipSnapshot ? null : readSnapshot();
+			boolean fromSnapshot = localInstance != null;
+
+			if(localInstance == null)
+			{
+				localInstance = Objects.requireNonNull(supplier.get(), "Unexpected null value from supplier");
+				writeSnapshot(localInstance);
+			}
+
+			// a failed CAS means we were invalidated mid load, hand the result to this caller but do not cache it
+			STATE.compareAndSet(this, current, new State<>(localInstance, false, fromSnapshot));
+			return localInstance;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * The next call to {@link #get()} calls the supplier, ignoring the current snapshot, and rewrites the snapshot.
+	 * Does not wait for a load in flight, which is not cached once it completes.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	@Override
+	public void invalidate()
+	{
+		// a new state object every time, so a load in flight can never publish over it
+		state = new State<>(null, true, false);
+	}
+
+	/**
+	 * Returns whether the current value was read from the snapshot file rather than computed by the supplier.
+	 *
+	 * @return Whether the current value was read from the snapshot file.
+	 */
+	public boolean isLoadedFromSnapshot()
+	{
+		return state.fromSnapshot;
+	}
+
+	/**
+	 * Returns the path of the snapshot file.
+	 *
+	 * @return The path of the snapshot file.
+	 */
+	public Path file()
+	{
+		return file;
+	}
+
+	@Nullable
+	private T readSnapshot()
+	{
+		if(!Files.isRegularFile(file))
+			return null;
+
+		try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			if(input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION || !fingerprint.equals(input.readUTF()))
+				return null;
+
+			Compression snapshotCompression = Compression.values()[input.readUnsignedByte()];
+
+			try(InputStream payload = snapshotCompression.decompress(input))
+			{
+				return codec.decode(payload);
+			}
+		}
+		catch(IOException | RuntimeException e)
+		{
+			// corrupt or incompatible snapshots are simply rebuilt
+			return null;
+		}
+	}
+
+	private void writeSnapshot(T value)
+	{
+		Path temp = null;
+
+		try
+		{
+			Path directory = file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+			try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+			{
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT_VERSION);
+				output.writeUTF(fingerprint);
+				output.writeByte(compression.ordinal());
+
+				try(OutputStream payload = compression.compress(output))
+				{
+					codec.encode(value, payload);
+				}
+			}
+
+			// readers never observe a partially written snapshot
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(IOException | RuntimeException e)
+		{
+			// failing to persist only costs a recompute on the next start, the computed value is still returned
+			if(temp != null)
+			{
+				try
+				{
+					Files.deleteIfExists(temp);
+				}
+				catch(IOException ignored)
+				{
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link PersistentLazy}.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to compute values when no valid snapshot exists.
+	 * @param codec The {@link SnapshotCodec} used to encode and decode values.
+	 * @param file The path of the snapshot file.
+	 * @param fingerprint Fingerprint of the inputs the value is derived from, such as a hash of the input files.
+	 *                    Snapshots written with a different fingerprint are ignored.
+	 * @throws IllegalArgumentException if the fingerprint is empty
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link Builder}.
+	 */
+	public static <@NotNullType T> Builder<T> builder(NotNullSupplier<T> supplier, SnapshotCodec<T> codec, Path file, String fingerprint)
+	{
+		return new Builder<>(supplier, codec, file, fingerprint);
+	}
+
+	/**
+	 * Compression applied to the payload of snapshot files, using commons-compress.
+	 */
+	public enum Compression
+	{
+		/**
+		 * The payload is not compressed.
+		 */
+		NONE(null),
+
+		/**
+		 * The payload is compressed using gzip.
+		 */
+		GZIP(CompressorStreamFactory.GZIP),
+
+		/**
+		 * The payload is compressed using deflate.
+		 */
+		DEFLATE(CompressorStreamFactory.DEFLATE),
+
+		/**
+		 * The payload is compressed using bzip2.
+		 */
+		BZIP2(CompressorStreamFactory.BZIP2);
+
+		@Nullable private final String name;
+
+		Compression(@Nullable String name)
+		{
+			this.name = name;
+		}
+
+		private OutputStream compress(OutputStream stream) throws IOException
+		{
+			if(name == null)
+				return new UnclosableOutputStream(stream);
+
+			try
+			{
+				return new CompressorStreamFactory().createCompressorOutputStream(name, new UnclosableOutputStream(stream));
+			}
+			catch(CompressorException e)
+			{
+				throw new IOException(e);
+			}
+		}
+
+		private InputStream decompress(InputStream stream) throws IOException
+		{
+			if(name == null)
+				return stream;
+
+			try
+			{
+				return new CompressorStreamFactory().createCompressorInputStream(name, stream);
+			}
+			catch(CompressorException e)
+			{
+				throw new IOException(e);
+			}
+		}
+	}
+
+	private static final class State<T>
+	{
+		@Nullable private final T value;
+		// set once invalidated, the snapshot on disk must not be trusted until rewritten
+		private final boolean skipSnapshot;
+		private final boolean fromSnapshot;
+
+		private State(@Nullable T value, boolean skipSnapshot, boolean fromSnapshot)
+		{
+			this.value = value;
+			this.skipSnapshot = skipSnapshot;
+			this.fromSnapshot = fromSnapshot;
+		}
+	}
+
+	// lets compressor streams be finished without closing the stream the header was written to
+	private static final class UnclosableOutputStream extends OutputStream
+	{
+		private final OutputStream delegate;
+
+		private UnclosableOutputStream(OutputStream delegate)
+		{
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			delegate.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			delegate.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException
+		{
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			delegate.flush();
+		}
+	}
+
+	/**
+	 * Builder used to configure and create {@link PersistentLazy} instances.
+	 *
+	 * @param <T> Type of value to lazily get.
+	 */
+	public static final class Builder<T>
+	{
+		private final NotNullSupplier<T> supplier;
+		private final SnapshotCodec<T> codec;
+		private final Path file;
+		private final String fingerprint;
+		private Compression compression = Compression.NONE;
+
+		private Builder(NotNullSupplier<T> supplier, SnapshotCodec<T> codec, Path file, String fingerprint)
+		{
+			this.supplier = supplier;
+			this.codec = codec;
+			this.file = file;
+			this.fingerprint = fingerprint;
+
+			if(fingerprint.isEmpty())
+				throw new IllegalArgumentException("Snapshot fingerprint must not be empty");
+		}
+
+		/**
+		 * Sets the {@link Compression} applied to newly written snapshots, defaults to {@link Compression#NONE}.
+		 *
+		 * @param compression The {@link Compression} applied to newly written snapshots.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> compression(Compression compression)
+		{
+			this.compression = compression;
+			return this;
+		}
+
+		/**
+		 * Builds a new {@link PersistentLazy} from this {@link Builder}.
+		 *
+		 * @return A new {@link PersistentLazy}.
+		 */
+		public PersistentLazy<T> build()
+		{
+			return new PersistentLazy<>(this);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,291 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+import xyz.apex.java.utility.api.nullness.NotNullType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Lazy} which holds its value through a {@link SoftReference} or {@link WeakReference},
+ * allowing the garbage collector to reclaim the value under memory pressure.
+ * <br>
+ * Once the garbage collector has cleared the value, the next call to {@link #get()} transparently recomputes it.
+ * <br>
+ * As a cleared reference can not be told apart from a null value, values of this {@link Lazy} must never be null.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see Strength
+ */
+public abstract class ReferenceLazy<T> implements Lazy<T>, NotNullSupplier<T>
+{
+	final NotNullSupplier<T> supplier;
+	final Strength strength;
+
+	private ReferenceLazy(NotNullSupplier<T> supplier, Strength strength)
+	{
+		this.supplier = supplier;
+		this.strength = strength;
+	}
+
+	/**
+	 * Returns the number of times the backing supplier has been called.
+	 *
+	 * @return The number of times the backing supplier has been called.
+	 */
+	public abstract long loadCount();
+
+	/**
+	 * Returns the number of times a value was found to be reclaimed by the garbage collector and had to be recomputed.
+	 *
+	 * @return The number of times a value was reclaimed by the garbage collector.
+	 */
+	public abstract long reclaimCount();
+
+	/**
+	 * Returns the {@link Strength} of the reference used to hold values.
+	 *
+	 * @return The {@link Strength} of the reference used to hold values.
+	 */
+	public final Strength strength()
+	{
+		return strength;
+	}
+
+	final T load()
+	{
+		return Objects.requireNonNull(supplier.get(), "Unexpected null value from supplier");
+	}
+
+	/**
+	 * Creates a new {@link ReferenceLazy}.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param strength The {@link Strength} of the reference used to hold values.
+	 * @param concurrent Whether this {@link Lazy} should be concurrent or not (Thread safe).
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link ReferenceLazy}.
+	 * @see Supplier
+	 * @see NotNullSupplier
+	 */
+	public static <@NotNullType T> ReferenceLazy<T> of(NotNullSupplier<T> supplier, Strength strength, boolean concurrent)
+	{
+		return concurrent ? new Concurrent<>(supplier, strength) : new NonConcurrent<>(supplier, strength);
+	}
+
+	/**
+	 * Creates a new {@link ReferenceLazy} holding its values through a {@link SoftReference}.
+	 * (This {@link Lazy} is not concurrent / thread safe).
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link ReferenceLazy}.
+	 * @see #of(NotNullSupplier, Strength, boolean)
+	 */
+	public static <@NotNullType T> ReferenceLazy<T> soft(NotNullSupplier<T> supplier)
+	{
+		return of(supplier, Strength.SOFT, false);
+	}
+
+	/**
+	 * Creates a new {@link ReferenceLazy} holding its values through a {@link WeakReference}.
+	 * (This {@link Lazy} is not concurrent / thread safe).
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to retrieve values from.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link ReferenceLazy}.
+	 * @see #of(NotNullSupplier, Strength, boolean)
+	 */
+	public static <@NotNullType T> ReferenceLazy<T> weak(NotNullSupplier<T> supplier)
+	{
+		return of(supplier, Strength.WEAK, false);
+	}
+
+	/**
+	 * Strength of the reference used to hold values of a {@link ReferenceLazy}.
+	 */
+	public enum Strength
+	{
+		/**
+		 * Values are held through a {@link SoftReference},
+		 * they are only reclaimed when the garbage collector needs the memory.
+		 */
+		SOFT,
+
+		/**
+		 * Values are held through a {@link WeakReference},
+		 * they are reclaimed as soon as they are no longer strongly reachable elsewhere.
+		 */
+		WEAK;
+
+		<T> Reference<T> create(T value)
+		{
+			return this == SOFT ? new SoftReference<>(value) : new WeakReference<>(value);
+		}
+	}
+
+	/**
+	 * Non concurrent variant of {@link ReferenceLazy}.
+	 *
+	 * @param <T> Type of value to lazily get.
+	 */
+	private static final class NonConcurrent<T> extends ReferenceLazy<T>
+	{
+		@Nullable private Reference<T> reference = null;
+		private long loads = 0L;
+		private long reclaims = 0L;
+
+		private NonConcurrent(NotNullSupplier<T> supplier, Strength strength)
+		{
+			super(supplier, strength);
+		}
+
+		@Override
+		public T get()
+		{
+			Reference<T> localReference = reference;
+			T value = localReference == null ? null : localReference.get();
+
+			if(value == null)
+			{
+				if(localReference != null)
+					reclaims++;
+
+				value = load();
+				loads++;
+				reference = strength.create(value);
+			}
+
+			return value;
+		}
+
+		@Override
+		public void invalidate()
+		{
+			reference = null;
+		}
+
+		@Override
+		public long loadCount()
+		{
+			return loads;
+		}
+
+		@Override
+		public long reclaimCount()
+		{
+			return reclaims;
+		}
+	}
+
+	/**
+	 * Concurrent (Thread safe) variant of {@link ReferenceLazy}.
+	 * <br>
+	 * Loads publish their reference by CAS against the reference they started from,
+	 * {@link #invalidate()} swaps in a new empty reference so a load in flight can never publish over it.
+	 *
+	 * @param <T> Type of value to lazily get.
+	 */
+	@SuppressWarnings("NonAtomicOperationOnVolatileField")
+	private static final class Concurrent<T> extends ReferenceLazy<T>
+	{
+		private static final VarHandle REFERENCE;
+
+		static
+		{
+			try
+			{
+				REFERENCE = MethodHandles.lookup().findVarHandle(Concurrent.class, "reference", Reference.class);
+			}
+			catch(ReflectiveOperationException e)
+			{
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private final ReentrantLock lock = new ReentrantLock();
+		@Nullable private volatile Reference<T> reference = null;
+		// only ever written while holding the lock
+		private volatile long loads = 0L;
+		private volatile long reclaims = 0L;
+
+		private Concurrent(NotNullSupplier<T> supplier, Strength strength)
+		{
+			super(supplier, strength);
+		}
+
+		@Override
+		public T get()
+		{
+			Reference<T> localReference = reference;
+			T value = localReference == null ? null : localReference.get();
+
+			if(value != null)
+				return value;
+			if(lock.isHeldByCurrentThread())
+				throw new IllegalStateException("Recursive initialization of Lazy");
+
+			lock.lock();
+
+			try
+			{
+				localReference = reference;
+				value = localReference == null ? null : localReference.get();
+
+				if(value == null)
+				{
+					if(localReference != null && !(localReference instanceof Invalidated))
+						reclaims++;
+
+					value = load();
+					loads++;
+					// a failed CAS means we were invalidated mid load, hand the result to this caller but do not cache it
+					REFERENCE.compareAndSet(this, localReference, strength.create(value));
+				}
+
+				return value;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void invalidate()
+		{
+			reference = new Invalidated<>();
+		}
+
+		@Override
+		public long loadCount()
+		{
+			return loads;
+		}
+
+		@Override
+		public long reclaimCount()
+		{
+			return reclaims;
+		}
+	}
+
+	// a new instance for every invalidation, its identity tells invalidations apart and it is never counted as reclaimed
+	private static final class Invalidated<T> extends WeakReference<T>
+	{
+		private Invalidated()
+		{
+			super(null);
+		}
+	}
+}
\ No newline at end of file
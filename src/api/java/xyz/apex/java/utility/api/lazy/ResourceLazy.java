@@ -0,0 +1,353 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.nullness.NotNullSupplier;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Concurrent (Thread safe) {@link Lazy} holding an {@link AutoCloseable} resource, which closes its value once it is discarded.
+ * <br>
+ * Values discarded through {@link #invalidate()} or replaced through {@link #refresh()} are closed on a background disposer,
+ * keeping both calls cheap for the calling thread.
+ * Readers which need the value to stay open while using it should {@link #acquire()} a {@link Handle},
+ * a discarded value is only closed once every handle to it has been closed,
+ * and then only after the optional grace period covering readers which used {@link #get()} directly.
+ * <br>
+ * Invalidation swaps the value out without waiting for a value being opened,
+ * a value opened before an invalidation is discarded and closed rather than cached.
+ *
+ * @param <T> Type of value to lazily get.
+ * @see Lazy
+ * @see #builder(NotNullSupplier)
+ */
+public final class ResourceLazy<T extends AutoCloseable> implements Lazy<T>
+{
+	private static final VarHandle RESOURCE;
+
+	static
+	{
+		try
+		{
+			RESOURCE = MethodHandles.lookup().findVarHandle(ResourceLazy.class, "resource", Resource.class);
+		}
+		catch(ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final NotNullSupplier<T> supplier;
+	private final Executor disposer;
+	private final Consumer<? super Exception> closeFailureHandler;
+	// serializes opening values, never held by invalidate
+	private final ReentrantLock lock = new ReentrantLock();
+	private volatile Resource<T> resource = Resource.empty();
+
+	private ResourceLazy(Builder<T> builder)
+	{
+		supplier = builder.supplier;
+		closeFailureHandler = builder.closeFailureHandler;
+		disposer = builder.gracePeriodNanos > 0L ? CompletableFuture.delayedExecutor(builder.gracePeriodNanos, TimeUnit.NANOSECONDS, builder.disposer) : builder.disposer;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * The returned value is not protected from being closed once discarded, other than by the grace period,
+	 * use {@link #acquire()} to keep it open while in use.
+	 *
+	 * @see Lazy#get()
+	 */
+	@Override
+	public T get()
+	{
+		T value = resource.value;
+		return value != null ? value : load(false).value();
+	}
+
+	/**
+	 * Acquires a {@link Handle} to the current value, loading it if required.
+	 * <br>
+	 * The value is kept open until the returned handle is closed, even if it is discarded in the meantime.
+	 *
+	 * @return A {@link Handle} to the current value, which must be closed once the value is no longer used.
+	 */
+	public Handle<T> acquire()
+	{
+		for(;;)
+		{
+			Resource<T> current = resource;
+
+			if(current.value == null)
+				current = load(false);
+			// a resource which was discarded between reading and retaining it is retried with the next one
+			if(current.retain())
+				return new Handle<>(this, current);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * The discarded value is closed in the background once no {@link Handle} to it remains open.
+	 * Does not wait for a value being opened, which is discarded once opened.
+	 *
+	 * @see Lazy#invalidate()
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public void invalidate()
+	{
+		Resource<T> previous = (Resource<T>) RESOURCE.getAndSet(this, Resource.empty());
+
+		if(previous.value != null)
+			release(previous);
+	}
+
+	/**
+	 * Loads a new value on the calling thread and replaces the current value with it.
+	 * <br>
+	 * Unlike {@link #invalidate()}, readers never observe this {@link Lazy} without a value,
+	 * the replaced value is closed in the background once no {@link Handle} to it remains open.
+	 *
+	 * @return The newly loaded value.
+	 */
+	public T refresh()
+	{
+		return load(true).value();
+	}
+
+	private Resource<T> load(boolean replace)
+	{
+		lock.lock();
+
+		try
+		{
+			for(;;)
+			{
+				Resource<T> current = resource;
+
+				if(!replace && current.value != null)
+					return current;
+
+				Resource<T> next = new Resource<>(Objects.requireNonNull(supplier.get(), "Unexpected null value from supplier"));
+
+				if(RESOURCE.compareAndSet(this, current, next))
+				{
+					if(current.value != null)
+						release(current);
+
+					return next;
+				}
+
+				// invalidated while opening, the value may have been opened from stale inputs so it is closed and opened again
+				release(next);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void release(Resource<T> discarded)
+	{
+		if(discarded.refs.decrementAndGet() == 0)
+			disposer.execute(() -> dispose(discarded.value));
+	}
+
+	private void dispose(T value)
+	{
+		try
+		{
+			value.close();
+		}
+		catch(Exception e)
+		{
+			closeFailureHandler.accept(e);
+		}
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link ResourceLazy}.
+	 *
+	 * @param supplier The backing {@link NotNullSupplier Supplier} used to open new values.
+	 * @param <T> The backing object type for this {@link Lazy}.
+	 * @return A new {@link Builder}.
+	 */
+	public static <T extends AutoCloseable> Builder<T> builder(NotNullSupplier<T> supplier)
+	{
+		return new Builder<>(supplier);
+	}
+
+	private static final class Resource<T>
+	{
+		// null only for empty resources, which are never retained or released
+		@Nullable private final T value;
+		// one reference is held by the owning lazy until the resource is discarded, plus one per open handle
+		private final AtomicInteger refs = new AtomicInteger(1);
+
+		private Resource(@Nullable T value)
+		{
+			this.value = value;
+		}
+
+		private T value()
+		{
+			return Objects.requireNonNull(value, "Empty resource");
+		}
+
+		private boolean retain()
+		{
+			for(;;)
+			{
+				int current = refs.get();
+
+				if(current == 0)
+					return false;
+				if(refs.compareAndSet(current, current + 1))
+					return true;
+			}
+		}
+
+		// a new instance every time, the identity of an empty resource tells invalidations apart
+		private static <T> Resource<T> empty()
+		{
+			return new Resource<>(null);
+		}
+	}
+
+	/**
+	 * Handle keeping a value of a {@link ResourceLazy} open until the handle is closed.
+	 *
+	 * @param <T> Type of the held value.
+	 */
+	public static final class Handle<T extends AutoCloseable> implements AutoCloseable
+	{
+		private final ResourceLazy<T> owner;
+		private final Resource<T> resource;
+		private final AtomicBoolean closed = new AtomicBoolean(false);
+
+		private Handle(ResourceLazy<T> owner, Resource<T> resource)
+		{
+			this.owner = owner;
+			this.resource = resource;
+		}
+
+		/**
+		 * Returns the held value.
+		 *
+		 * @return The held value.
+		 * @throws IllegalStateException if this handle has been closed
+		 */
+		public T get()
+		{
+			if(closed.get())
+				throw new IllegalStateException("Handle has been closed");
+
+			return resource.value();
+		}
+
+		/**
+		 * Releases the held value, closing it in the background if it has been discarded and this was the last open handle.
+		 * <br>
+		 * Closing a handle more than once has no effect.
+		 */
+		@Override
+		public void close()
+		{
+			if(closed.compareAndSet(false, true))
+				owner.release(resource);
+		}
+	}
+
+	/**
+	 * Builder used to configure and create {@link ResourceLazy} instances.
+	 *
+	 * @param <T> Type of value to lazily get.
+	 */
+	public static final class Builder<T extends AutoCloseable>
+	{
+		private final NotNullSupplier<T> supplier;
+		private Executor disposer = ForkJoinPool.commonPool();
+		private long gracePeriodNanos = 0L;
+		private Consumer<? super Exception> closeFailureHandler = e -> {
+			// thrown on the disposer the exception would be lost, report it like any other uncaught exception instead
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, new IllegalStateException("Failed to close discarded Lazy value", e));
+		};
+
+		private Builder(NotNullSupplier<T> supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		/**
+		 * Sets the {@link Executor} discarded values are closed on, defaults to {@link ForkJoinPool#commonPool()}.
+		 *
+		 * @param disposer The {@link Executor} discarded values are closed on.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> disposer(Executor disposer)
+		{
+			this.disposer = disposer;
+			return this;
+		}
+
+		/**
+		 * Sets how long discarded values stay open after their last {@link Handle} is closed,
+		 * covering readers which obtained the value through {@link ResourceLazy#get()}.
+		 * <br>
+		 * A zero grace period (the default) closes discarded values as soon as their last handle is closed.
+		 *
+		 * @param gracePeriod How long discarded values stay open after they are no longer referenced.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the grace period is negative
+		 */
+		public Builder<T> gracePeriod(Duration gracePeriod)
+		{
+			if(gracePeriod.isNegative())
+				throw new IllegalArgumentException("Grace period must not be negative: " + gracePeriod);
+
+			gracePeriodNanos = gracePeriod.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets the handler invoked on the disposer with exceptions thrown while closing discarded values,
+		 * defaults to reporting them, wrapped in an {@link IllegalStateException}, to the {@link Thread.UncaughtExceptionHandler} of the disposer thread.
+		 *
+		 * @param closeFailureHandler The handler for exceptions thrown while closing discarded values.
+		 * @return This {@link Builder}.
+		 */
+		public Builder<T> onCloseFailure(Consumer<? super Exception> closeFailureHandler)
+		{
+			this.closeFailureHandler = closeFailureHandler;
+			return this;
+		}
+
+		/**
+		 * Builds a new {@link ResourceLazy} from this {@link Builder}.
+		 *
+		 * @return A new {@link ResourceLazy}.
+		 */
+		public ResourceLazy<T> build()
+		{
+			return new ResourceLazy<>(this);
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package xyz.apex.java.utility.api.lazy;
+
+import com.google.gson.Gson;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Codec used by {@link PersistentLazy} to write values to and read values from snapshot files.
+ *
+ * @param <T> Type of value being encoded.
+ * @see PersistentLazy
+ */
+public interface SnapshotCodec<T>
+{
+	/**
+	 * Encodes the given value to the given stream.
+	 *
+	 * @param value The value to be encoded.
+	 * @param stream The stream to encode the value to, must not be closed by the codec.
+	 * @throws IOException if an I/O error occurs
+	 */
+	void encode(T value, OutputStream stream) throws IOException;
+
+	/**
+	 * Decodes a value from the given stream.
+	 *
+	 * @param stream The stream to decode the value from, must not be closed by the codec.
+	 * @return The decoded value.
+	 * @throws IOException if an I/O error occurs or the stream does not contain a valid value
+	 */
+	T decode(InputStream stream) throws IOException;
+
+	/**
+	 * Creates a codec which encodes values as json using the given {@link Gson} instance.
+	 *
+	 * @param gson The {@link Gson} instance used to encode and decode values.
+	 * @param type The type of value being encoded.
+	 * @param <T> Type of value being encoded.
+	 * @return A new json codec.
+	 */
+	static <T> SnapshotCodec<T> gson(Gson gson, Type type)
+	{
+		return new SnapshotCodec<>()
+		{
+			@Override
+			public void encode(T value, OutputStream stream) throws IOException
+			{
+				Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+				gson.toJson(value, type, writer);
+				writer.flush();
+			}
+
+			@Override
+			public T decode(InputStream stream) throws IOException
+			{
+				T value = gson.fromJson(new InputStreamReader(stream, StandardCharsets.UTF_8), type);
+
+				if(value == null)
+					throw new IOException("Snapshot did not contain a value");
+
+				return value;
+			}
+		};
+	}
+
+	/**
+	 * Creates a compact binary codec from the given encoder and decoder.
+	 *
+	 * @param encoder Writes a value to a {@link DataOutputStream}.
+	 * @param decoder Reads a value from a {@link DataInputStream}.
+	 * @param <T> Type of value being encoded.
+	 * @return A new binary codec.
+	 */
+	static <T> SnapshotCodec<T> binary(Encoder<T> encoder, Decoder<T> decoder)
+	{
+		return new SnapshotCodec<>()
+		{
+			@Override
+			public void encode(T value, OutputStream stream) throws IOException
+			{
+				DataOutputStream output = new DataOutputStream(stream);
+				encoder.encode(value, output);
+				output.flush();
+			}
+
+			@Override
+			public T decode(InputStream stream) throws IOException
+			{
+				return Objects.requireNonNull(decoder.decode(new DataInputStream(stream)), "Unexpected null value from decoder");
+			}
+		};
+	}
+
+	/**
+	 * Writes a value to a {@link DataOutputStream}.
+	 *
+	 * @param <T> Type of value being encoded.
+	 */
+	@FunctionalInterface
+	interface Encoder<T>
+	{
+		void encode(T value, DataOutputStream output) throws IOException;
+	}
+
+	/**
+	 * Reads a value from a {@link DataInputStream}.
+	 *
+	 * @param <T> Type of value being decoded.
+	 */
+	@FunctionalInterface
+	interface Decoder<T>
+	{
+		T decode(DataInputStream input) throws IOException;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,534 @@
+package xyz.apex.java.utility.api.lazy;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hierarchical timing wheel scheduling coarse grained timeouts, such as expiry and refresh of cached values, in constant time.
+ * <br>
+ * Time advances in fixed ticks, each level of the wheel holds 64 buckets spanning 64 times as many ticks as the level below it,
+ * timeouts are placed in the bucket covering their deadline and cascade towards the lowest level as time advances.
+ * Scheduling and cancelling a timeout are both constant time, unlike the logarithmic cost of a {@code ScheduledExecutorService}.
+ * Timeouts fire at the first tick at or after their deadline, never early, but up to a tick late.
+ * <br>
+ * The wheel is advanced either by callers through {@link #advance()}, for example on reads, or by a single ticker thread started through {@link #start(ThreadFactory)}.
+ *
+ * @see #builder()
+ */
+public final class TimingWheel implements AutoCloseable
+{
+	private static final int BITS = 6;
+	private static final int BUCKETS = 1 << BITS;
+	private static final int MASK = BUCKETS - 1;
+
+	private final long tickNanos;
+	private final int levels;
+	private final LongSupplier ticker;
+	private final Executor executor;
+	private final long origin;
+	private final Bucket[][] wheel;
+	private final ReentrantLock lock = new ReentrantLock();
+	@Nullable private volatile Thread tickerThread = null;
+
+	// guarded by lock
+	private long currentTick = 0L;
+	private long pending = 0L;
+
+	private TimingWheel(Builder builder)
+	{
+		tickNanos = builder.tickNanos;
+		levels = builder.levels;
+		ticker = builder.ticker;
+		executor = builder.executor;
+		origin = ticker.getAsLong();
+		wheel = new Bucket[levels][BUCKETS];
+
+		for(Bucket[] level : wheel)
+		{
+			for(int i = 0; i < BUCKETS; i++)
+			{
+				level[i] = new Bucket();
+			}
+		}
+	}
+
+	/**
+	 * Schedules the given task to run once the given delay has elapsed.
+	 *
+	 * @param task The task to be run.
+	 * @param delay The delay after which the task runs, rounded up to whole ticks.
+	 * @return A {@link Timeout} which can be used to cancel the task.
+	 */
+	public Timeout schedule(Runnable task, Duration delay)
+	{
+		return schedule(task, delay.toNanos());
+	}
+
+	/**
+	 * Schedules the given task to run once the given delay, in nanoseconds, has elapsed.
+	 *
+	 * @param task The task to be run.
+	 * @param delayNanos The delay after which the task runs, in nanoseconds, rounded up to whole ticks.
+	 * @return A {@link Timeout} which can be used to cancel the task.
+	 */
+	public Timeout schedule(Runnable task, long delayNanos)
+	{
+		long elapsed = ticker.getAsLong() - origin + Math.max(0L, delayNanos);
+		Timeout timeout = new Timeout(this, task, (elapsed + tickNanos - 1L) / tickNanos);
+		List<Timeout> expired = null;
+
+		lock.lock();
+
+		try
+		{
+			if(place(timeout))
+				pending++;
+			else
+			{
+				// the delay is shorter than the time since the last advance
+				timeout.state = Timeout.EXPIRED;
+				expired = List.of(timeout);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		if(expired != null)
+			run(expired);
+
+		return timeout;
+	}
+
+	/**
+	 * Advances this wheel to the current time, running every timeout whose deadline has passed.
+	 * <br>
+	 * Cheap when no tick has elapsed since the last advance, so it may be called on every read.
+	 * If another thread is already advancing this wheel, this returns immediately.
+	 *
+	 * @return The number of timeouts run.
+	 */
+	public int advance()
+	{
+		long now = (ticker.getAsLong() - origin) / tickNanos;
+		List<Timeout> expired = new ArrayList<>();
+
+		if(!lock.tryLock())
+			return 0;
+
+		try
+		{
+			// nothing is scheduled, so every tick up to now can be skipped
+			if(pending == 0L)
+				currentTick = Math.max(currentTick, now);
+
+			while(currentTick < now)
+			{
+				currentTick++;
+
+				// cascade from the highest level down, so timeouts reach the lowest level before its bucket expires
+				for(int level = levels - 1; level > 0; level--)
+				{
+					if((currentTick & ((1L << (BITS * level)) - 1L)) == 0L)
+						cascade(wheel[level][(int) (currentTick >>> (BITS * level)) & MASK], expired);
+				}
+
+				cascade(wheel[0][(int) currentTick & MASK], expired);
+			}
+
+			for(Timeout timeout : expired)
+			{
+				timeout.state = Timeout.EXPIRED;
+			}
+
+			pending -= expired.size();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		run(expired);
+		return expired.size();
+	}
+
+	/**
+	 * Returns the number of scheduled timeouts which have neither run nor been cancelled.
+	 *
+	 * @return The number of scheduled timeouts.
+	 */
+	public long pendingCount()
+	{
+		lock.lock();
+
+		try
+		{
+			return pending;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the nanosecond time source this wheel advances on, delays passed to {@link #schedule(Runnable, long)} are measured against it.
+	 *
+	 * @return The nanosecond time source of this wheel.
+	 */
+	public LongSupplier ticker()
+	{
+		return ticker;
+	}
+
+	/**
+	 * Starts a single ticker thread which advances this wheel once per tick, until {@link #close()} is called.
+	 *
+	 * @param threadFactory Factory creating the ticker thread.
+	 * @return This {@link TimingWheel}.
+	 * @throws IllegalStateException if the ticker thread was already started
+	 */
+	public TimingWheel start(ThreadFactory threadFactory)
+	{
+		Thread thread = threadFactory.newThread(() -> {
+			while(!Thread.currentThread().isInterrupted())
+			{
+				LockSupport.parkNanos(this, tickNanos);
+
+				try
+				{
+					advance();
+				}
+				catch(RuntimeException e)
+				{
+					// a failing task must not stop the ticker
+					Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+					handler.uncaughtException(Thread.currentThread(), e);
+				}
+			}
+		});
+
+		lock.lock();
+
+		try
+		{
+			if(tickerThread != null)
+				throw new IllegalStateException("Ticker thread already started");
+
+			tickerThread = thread;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		thread.start();
+		return this;
+	}
+
+	/**
+	 * Stops the ticker thread, if started, scheduled timeouts are retained and can still be run through {@link #advance()}.
+	 */
+	@Override
+	public void close()
+	{
+		Thread thread = tickerThread;
+
+		if(thread != null)
+			thread.interrupt();
+	}
+
+	// returns false if the deadline has already passed
+	private boolean place(Timeout timeout)
+	{
+		long delta = timeout.deadline - currentTick;
+
+		if(delta <= 0L)
+			return false;
+
+		int level = 0;
+
+		while(level < levels - 1 && delta >= 1L << (BITS * (level + 1)))
+		{
+			level++;
+		}
+
+		// deadlines beyond the span of the wheel wait in the top level bucket visited last, and are placed again from there
+		long slot = delta >= 1L << (BITS * levels) ? currentTick : timeout.deadline;
+		wheel[level][(int) (slot >>> (BITS * level)) & MASK].add(timeout);
+		return true;
+	}
+
+	// places every timeout of the bucket again, collecting those whose deadline has passed
+	private void cascade(Bucket bucket, List<Timeout> expired)
+	{
+		// detached first, as deadlines beyond the span of the wheel are placed back into the same bucket
+		Timeout timeout = bucket.clear();
+
+		while(timeout != null)
+		{
+			Timeout next = timeout.next;
+			timeout.bucket = null;
+			timeout.prev = null;
+			timeout.next = null;
+
+			if(!place(timeout))
+				expired.add(timeout);
+
+			timeout = next;
+		}
+	}
+
+	private void cancel(Timeout timeout)
+	{
+		lock.lock();
+
+		try
+		{
+			if(timeout.state != Timeout.PENDING)
+				return;
+
+			if(timeout.bucket != null)
+				timeout.bucket.remove(timeout);
+
+			timeout.state = Timeout.CANCELLED;
+			pending--;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void run(List<Timeout> expired)
+	{
+		RuntimeException failure = null;
+
+		for(Timeout timeout : expired)
+		{
+			try
+			{
+				executor.execute(timeout.task);
+			}
+			catch(RuntimeException e)
+			{
+				// run every expired task before reporting the first failure
+				if(failure == null)
+					failure = e;
+				else
+					failure.addSuppressed(e);
+			}
+		}
+
+		if(failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for a {@link TimingWheel}.
+	 *
+	 * @return A new {@link Builder}.
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Handle of a task scheduled on a {@link TimingWheel}.
+	 */
+	public static final class Timeout
+	{
+		private static final int PENDING = 0;
+		private static final int EXPIRED = 1;
+		private static final int CANCELLED = 2;
+
+		private final TimingWheel wheel;
+		private final Runnable task;
+		private final long deadline;
+
+		// guarded by the wheel lock
+		private volatile int state = PENDING;
+		@Nullable private Bucket bucket = null;
+		@Nullable private Timeout prev = null;
+		@Nullable private Timeout next = null;
+
+		private Timeout(TimingWheel wheel, Runnable task, long deadline)
+		{
+			this.wheel = wheel;
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		/**
+		 * Cancels the task, if it has not yet run.
+		 */
+		public void cancel()
+		{
+			wheel.cancel(this);
+		}
+
+		/**
+		 * Returns whether the task has been cancelled.
+		 *
+		 * @return Whether the task has been cancelled.
+		 */
+		public boolean isCancelled()
+		{
+			return state == CANCELLED;
+		}
+
+		/**
+		 * Returns whether the deadline of the task has passed and the task was handed to the executor.
+		 *
+		 * @return Whether the task has expired.
+		 */
+		public boolean isExpired()
+		{
+			return state == EXPIRED;
+		}
+	}
+
+	/**
+	 * Intrusive doubly linked list of timeouts.
+	 */
+	private static final class Bucket
+	{
+		@Nullable private Timeout head = null;
+		@Nullable private Timeout tail = null;
+
+		private void add(Timeout timeout)
+		{
+			timeout.bucket = this;
+			timeout.prev = tail;
+			timeout.next = null;
+
+			if(tail == null)
+				head = timeout;
+			else
+				tail.next = timeout;
+
+			tail = timeout;
+		}
+
+		private void remove(Timeout timeout)
+		{
+			if(timeout.prev == null)
+				head = timeout.next;
+			else
+				timeout.prev.next = timeout.next;
+
+			if(timeout.next == null)
+				tail = timeout.prev;
+			else
+				timeout.next.prev = timeout.prev;
+
+			timeout.bucket = null;
+			timeout.prev = null;
+			timeout.next = null;
+		}
+
+		// unlinks every timeout from this bucket at once, returning the first of the still chained timeouts
+		@Nullable
+		private Timeout clear()
+		{
+			Timeout first = head;
+			head = null;
+			tail = null;
+			return first;
+		}
+	}
+
+	/**
+	 * Builder used to configure and create {@link TimingWheel} instances.
+	 */
+	public static final class Builder
+	{
+		private long tickNanos = TimeUnit.MILLISECONDS.toNanos(100L);
+		private int levels = 4;
+		private LongSupplier ticker = System::nanoTime;
+		private Executor executor = Runnable::run;
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Sets the duration of a single tick, the resolution of scheduled timeouts, defaults to 100 milliseconds.
+		 *
+		 * @param tick The duration of a single tick.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the duration is not positive
+		 */
+		public Builder tick(Duration tick)
+		{
+			if(tick.isNegative() || tick.isZero())
+				throw new IllegalArgumentException("Tick duration must be positive: " + tick);
+
+			tickNanos = tick.toNanos();
+			return this;
+		}
+
+		/**
+		 * Sets the number of levels of the wheel, each level spanning 64 times as many ticks as the level below it, defaults to 4.
+		 * <br>
+		 * Timeouts beyond the span of all levels are supported, but cascade through the top level more than once.
+		 *
+		 * @param levels The number of levels, between 1 and 10.
+		 * @return This {@link Builder}.
+		 * @throws IllegalArgumentException if the number of levels is not between 1 and 10
+		 */
+		public Builder levels(int levels)
+		{
+			if(levels < 1 || levels > 10)
+				throw new IllegalArgumentException("Levels must be between 1 and 10: " + levels);
+
+			this.levels = levels;
+			return this;
+		}
+
+		/**
+		 * Sets the nanosecond time source, defaults to {@link System#nanoTime()}.
+		 *
+		 * @param ticker The nanosecond time source.
+		 * @return This {@link Builder}.
+		 */
+		public Builder ticker(LongSupplier ticker)
+		{
+			this.ticker = ticker;
+			return this;
+		}
+
+		/**
+		 * Sets the {@link Executor} expired tasks are run on, defaults to running them on the thread advancing the wheel.
+		 *
+		 * @param executor The {@link Executor} expired tasks are run on.
+		 * @return This {@link Builder}.
+		 */
+		public Builder executor(Executor executor)
+		{
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Builds a new {@link TimingWheel} from this {@link Builder}.
+		 *
+		 * @return A new {@link TimingWheel}.
+		 */
+		public TimingWheel build()
+		{
+			return new TimingWheel(this);
+		}
+	}
+}
@@ -0,0 +1,4 @@
+@xyz.apex.java.utility.api.nullness.MethodsReturnNotNullByDefault
+@xyz.apex.java.utility.api.nullness.ParametersAreNotNullByDefault
+@xyz.apex.java.utility.api.nullness.FieldsAreNotNullByDefault
+package xyz.apex.java.utility.api.lazy;
\ No newline at end of file
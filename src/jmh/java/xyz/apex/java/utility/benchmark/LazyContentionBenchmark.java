@@ -0,0 +1,76 @@
+package xyz.apex.java.utility.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the steady state {@link Lazy#get()} throughput of the concurrent {@link Lazy} variants
+ * with 1, 8 and 64 threads reading a single already initialized {@link Lazy}.
+ * <br>
+ * Run using {@code gradlew jmh --args="LazyContentionBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyContentionBenchmark
+{
+	@Param({ "concurrent", "concurrent-nullable", "atomic", "atomic-nullable" })
+	public String variant = "";
+
+	private Lazy<Object> lazy = Lazy.of(Object::new);
+
+	@Setup
+	public void setup()
+	{
+		if(variant.equals("concurrent"))
+			lazy = Lazy.of(Object::new, true);
+		else if(variant.equals("concurrent-nullable"))
+			lazy = Lazy.ofNullable(Object::new, true);
+		else if(variant.equals("atomic"))
+			lazy = Lazy.ofAtomic(Object::new);
+		else if(variant.equals("atomic-nullable"))
+			lazy = Lazy.ofNullableAtomic(Object::new);
+		else
+			throw new IllegalArgumentException("Unknown Lazy variant: " + variant);
+
+		lazy.get();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Object readers1()
+	{
+		return lazy.get();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Object readers8()
+	{
+		return lazy.get();
+	}
+
+	@Benchmark
+	@Threads(64)
+	public Object readers64()
+	{
+		return lazy.get();
+	}
+}
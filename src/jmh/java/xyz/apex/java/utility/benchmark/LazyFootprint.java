@@ -0,0 +1,50 @@
+package xyz.apex.java.utility.benchmark;
+
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.lazy.CompactLazy;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Reports the per instance memory footprint of the concurrent {@link Lazy} variants, measured using JOL.
+ * <br>
+ * Every {@link Lazy} is created with a supplier capturing some context, as most real suppliers do.
+ * The retained size excludes the loaded value itself, so it shows what each {@link Lazy} costs on top of its value,
+ * including whether the supplier and its captured context are still reachable once initialized.
+ * <br>
+ * Run using {@code gradlew footprint}.
+ */
+public final class LazyFootprint
+{
+	private static final Object VALUE = new Object();
+
+	public static void main(String[] args)
+	{
+		System.out.println(VM.current().details());
+		System.out.printf("%-24s %8s %16s %16s%n", "variant", "shallow", "retained (cold)", "retained (warm)");
+
+		report("concurrent", supplier -> Lazy.of(supplier::get, true));
+		report("atomic", supplier -> Lazy.ofAtomic(supplier::get));
+		report("compact", supplier -> CompactLazy.of(supplier::get));
+		report("compact invalidatable", supplier -> CompactLazy.of(supplier::get, true));
+	}
+
+	private static void report(String name, Function<Supplier<Object>, Lazy<Object>> factory)
+	{
+		Object[] context = new Object[4];
+		Lazy<Object> lazy = factory.apply(() -> context.length > 0 ? VALUE : context);
+		long cold = retainedSize(lazy);
+		lazy.get();
+		System.out.printf("%-24s %8d %16d %16d%n", name, ClassLayout.parseInstance(lazy).instanceSize(), cold, retainedSize(lazy));
+	}
+
+	private static long retainedSize(Lazy<Object> lazy)
+	{
+		return GraphLayout.parseInstance(lazy).subtract(GraphLayout.parseInstance(VALUE)).totalSize();
+	}
+}
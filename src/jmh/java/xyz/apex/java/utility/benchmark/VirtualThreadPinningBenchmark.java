@@ -0,0 +1,131 @@
+package xyz.apex.java.utility.benchmark;
+
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import xyz.apex.java.utility.api.Lazy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures how long 10k virtual threads take to all read one cold {@link Lazy} whose supplier blocks, as if on I/O.
+ * <br>
+ * A virtual thread blocked inside or waiting on a {@code synchronized} block pins its carrier thread,
+ * the {@code synchronized} variant reproduces how the concurrent {@link Lazy} variants loaded before moving to j.u.c locks.
+ * A probe virtual thread is started after the readers, once every carrier is pinned it can not run until the load completes.
+ * <br>
+ * Run using {@code gradlew jmh --args="VirtualThreadPinningBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VirtualThreadPinningBenchmark
+{
+	private static final int READERS = 10_000;
+
+	@Param({ "synchronized", "concurrent", "atomic" })
+	public String variant = "";
+
+	@Param({ "20" })
+	public long loadMillis = 20L;
+
+	private Lazy<Object> lazy = Lazy.of(Object::new);
+
+	@Setup(Level.Invocation)
+	public void setup()
+	{
+		// a new cold Lazy for every invocation, so each one measures a load
+		if(variant.equals("synchronized"))
+			lazy = new SynchronizedLazy<>(this::load);
+		else if(variant.equals("concurrent"))
+			lazy = Lazy.of(this::load, true);
+		else if(variant.equals("atomic"))
+			lazy = Lazy.ofAtomic(this::load);
+		else
+			throw new IllegalArgumentException("Unknown Lazy variant: " + variant);
+	}
+
+	@Benchmark
+	public void coldLoad() throws InterruptedException
+	{
+		try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			for(int i = 0; i < READERS; i++)
+			{
+				executor.execute(lazy::get);
+			}
+
+			Thread.ofVirtual().start(() -> { }).join();
+		}
+	}
+
+	private Object load()
+	{
+		try
+		{
+			Thread.sleep(loadMillis);
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		return new Object();
+	}
+
+	private static final class SynchronizedLazy<T> implements Lazy<T>
+	{
+		private final Supplier<T> supplier;
+		@Nullable private volatile T instance = null;
+
+		private SynchronizedLazy(Supplier<T> supplier)
+		{
+			this.supplier = supplier;
+		}
+
+		@Override
+		public T get()
+		{
+			T localInstance = instance;
+
+			if(localInstance == null)
+			{
+				synchronized(this)
+				{
+					localInstance = instance;
+
+					if(localInstance == null)
+					{
+						localInstance = supplier.get();
+						instance = localInstance;
+					}
+				}
+			}
+
+			return localInstance;
+		}
+
+		@Override
+		public void invalidate()
+		{
+			instance = null;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package xyz.apex.java.utility.simulator;
+
+import xyz.apex.java.utility.api.Lazy;
+import xyz.apex.java.utility.api.function.Memoizers;
+import xyz.apex.java.utility.api.lazy.LazyBudget;
+import xyz.apex.java.utility.api.lazy.LoadingCache;
+import xyz.apex.java.utility.api.nullness.NotNullBiFunction;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * The {@link Policy} implementations replayed by the {@link Simulator}.
+ * <br>
+ * Every policy stores the accessed key as its value, so retained memory compares the policies own overhead.
+ */
+public final class Policies
+{
+	private Policies()
+	{
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * Returns a policy evicting the least recently used key, the baseline most caches are compared against.
+	 *
+	 * @param size The maximum number of retained keys.
+	 * @return A least recently used policy.
+	 */
+	public static Policy lru(int size)
+	{
+		Map<Long, Long> map = new LinkedHashMap<>(16, .75F, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest)
+			{
+				return size() > size;
+			}
+		};
+
+		return key -> {
+			if(map.get(key) != null)
+				return true;
+
+			map.put(key, key);
+			return false;
+		};
+	}
+
+	/**
+	 * Returns a policy backed by a {@link LoadingCache} bounded to the given size, evicting using W-TinyLFU.
+	 *
+	 * @param size The maximum number of retained keys.
+	 * @return A {@link LoadingCache} backed policy.
+	 */
+	public static Policy loadingCache(int size)
+	{
+		LoadCounter counter = new LoadCounter();
+		LoadingCache<Long, Long> cache = LoadingCache.<Long, Long>builder(counter::load).maximumSize(size).build();
+		return key -> counter.hit(() -> cache.get(key));
+	}
+
+	/**
+	 * Returns a policy backed by a bounded {@link Memoizers memoizer}, evicting using CLOCK.
+	 * <br>
+	 * Memoizers take at least two arguments, the key is memoized alongside a constant second argument.
+	 *
+	 * @param size The maximum number of retained keys.
+	 * @return A {@link Memoizers memoizer} backed policy.
+	 */
+	public static Policy memoizer(int size)
+	{
+		LoadCounter counter = new LoadCounter();
+		NotNullBiFunction<Long, Integer, Long> memoized = Memoizers.memoize((key, unused) -> counter.load(key), size);
+		return key -> counter.hit(() -> memoized.apply(key, 0));
+	}
+
+	/**
+	 * Returns a policy holding one {@link Lazy} per key, each registered with a {@link LazyBudget} of the given size.
+	 * <br>
+	 * Every value weighs {@code 1}, and the budget is ticked once per access, so evictions weigh recency alone.
+	 * Evicting only invalidates the {@link Lazy}, so one {@link Lazy} per distinct key is retained regardless of size.
+	 *
+	 * @param size The maximum number of loaded keys.
+	 * @return A {@link LazyBudget} backed policy.
+	 */
+	public static Policy lazyBudget(int size)
+	{
+		LoadCounter counter = new LoadCounter();
+		LazyBudget budget = LazyBudget.builder(size).ticker(counter::ticks).build();
+		Map<Long, Lazy<Long>> lazies = new HashMap<>();
+
+		return key -> counter.hit(() -> {
+			counter.tick();
+			return lazies.computeIfAbsent(key, k -> budget.register(Lazy.of(() -> counter.load(k)), value -> 1L)).get();
+		});
+	}
+
+	/**
+	 * Returns Belady's clairvoyant policy for the given trace, evicting the key whose next use lies furthest in the future.
+	 * <br>
+	 * No policy can exceed its hit rate, it bounds what any other policy could achieve at the same size.
+	 * It must be replayed against exactly the given trace, from its start.
+	 * Keys are dropped after their last use, so nothing is retained once the whole trace has been replayed.
+	 *
+	 * @param trace The trace this policy will be replayed against.
+	 * @param size The maximum number of retained keys.
+	 * @return The optimal policy for the given trace.
+	 */
+	public static Policy optimal(Trace trace, int size)
+	{
+		int[] nextUses = trace.nextUses();
+		// keyed by next use, every position is the next use of at most one earlier access
+		TreeMap<Integer, Long> retained = new TreeMap<>();
+		int[] position = { 0 };
+
+		return key -> {
+			int index = position[0]++;
+			int next = nextUses[index];
+			boolean hit = retained.remove(index) != null;
+
+			// keys never used again are not worth retaining
+			if(next == trace.length())
+				return hit;
+
+			if(!hit && retained.size() >= size)
+			{
+				// the new key is needed later than everything retained, so it is the one to evict
+				if(retained.lastKey() < next)
+					return false;
+
+				retained.pollLastEntry();
+			}
+
+			retained.put(next, key);
+			return hit;
+		};
+	}
+
+	private static final class LoadCounter
+	{
+		private long loads = 0L;
+		private long ticks = 0L;
+
+		private Long load(Long key)
+		{
+			loads++;
+			return key;
+		}
+
+		private long ticks()
+		{
+			return ticks;
+		}
+
+		private void tick()
+		{
+			ticks++;
+		}
+
+		private boolean hit(Supplier<Long> access)
+		{
+			long before = loads;
+			access.get();
+			return loads == before;
+		}
+	}
+}
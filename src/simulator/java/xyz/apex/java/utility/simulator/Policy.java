@@ -0,0 +1,18 @@
+package xyz.apex.java.utility.simulator;
+
+/**
+ * Cache policy replayed by the {@link Simulator}, retaining some bounded number of keys.
+ *
+ * @see Policies
+ */
+@FunctionalInterface
+public interface Policy
+{
+	/**
+	 * Records an access of the given key, loading it on a miss.
+	 *
+	 * @param key The key being accessed.
+	 * @return Whether the key was already retained by this policy.
+	 */
+	boolean access(long key);
+}
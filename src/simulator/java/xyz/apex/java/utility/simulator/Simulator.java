@@ -0,0 +1,254 @@
+package xyz.apex.java.utility.simulator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.ref.Reference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Replays access traces against every {@link Policy} at a range of sizes,
+ * reporting the hit rate, throughput and retained memory of each.
+ * <br>
+ * Run using {@code gradlew simulate --args="..."}, accepting the following options:
+ * <ul>
+ *     <li>{@code --traces} comma separated {@code zipf}, {@code scan}, {@code loop} or trace files, see {@link Trace#read(Path)}</li>
+ *     <li>{@code --policies} comma separated {@code lru}, {@code loading-cache}, {@code memoizer}, {@code lazy-budget} or {@code optimal}</li>
+ *     <li>{@code --sizes} comma separated maximum number of retained keys</li>
+ *     <li>{@code --keys} number of distinct keys of synthetic traces</li>
+ *     <li>{@code --length} number of accesses of synthetic traces</li>
+ *     <li>{@code --exponent} skew of the Zipf distribution of synthetic traces</li>
+ *     <li>{@code --seed} seed of synthetic traces</li>
+ * </ul>
+ * Throughput is measured single threaded after a short warm up, and retained memory is the growth of the used heap
+ * between before the policy was created and after it was replayed, both are indicative rather than precise.
+ */
+public final class Simulator
+{
+	private static final int WARM_UP_LENGTH = 100_000;
+	private static final Map<String, BiFunction<Trace, Integer, Policy>> POLICIES = new LinkedHashMap<>();
+
+	static
+	{
+		POLICIES.put("lru", (trace, size) -> Policies.lru(size));
+		POLICIES.put("loading-cache", (trace, size) -> Policies.loadingCache(size));
+		POLICIES.put("memoizer", (trace, size) -> Policies.memoizer(size));
+		POLICIES.put("lazy-budget", (trace, size) -> Policies.lazyBudget(size));
+		POLICIES.put("optimal", Policies::optimal);
+	}
+
+	private final PrintStream out;
+	private String traces = "zipf,scan,loop";
+	private String policies = String.join(",", POLICIES.keySet());
+	private String sizes = "250,1000,2500";
+	private int keys = 10_000;
+	private int length = 200_000;
+	private double exponent = .9D;
+	private long seed = 42L;
+
+	private Simulator(PrintStream out)
+	{
+		this.out = out;
+	}
+
+	public static void main(String[] args)
+	{
+		Simulator simulator = new Simulator(System.out);
+
+		try
+		{
+			simulator.parse(args);
+			simulator.run();
+		}
+		catch(IOException e)
+		{
+			System.err.println("Could not read trace: " + e.getMessage());
+			System.exit(1);
+		}
+		catch(IllegalArgumentException e)
+		{
+			System.err.println(e.getMessage());
+			System.err.println("Usage: simulate [--traces zipf,scan,loop,<file>] [--policies " + String.join(",", POLICIES.keySet()) + "] [--sizes 250,1000,2500] [--keys 10000] [--length 200000] [--exponent 0.9] [--seed 42]");
+			System.exit(1);
+		}
+	}
+
+	private void parse(String[] args)
+	{
+		for(int i = 0; i < args.length; i += 2)
+		{
+			if(i + 1 >= args.length)
+				throw new IllegalArgumentException("Missing value for option: " + args[i]);
+
+			String value = args[i + 1];
+
+			try
+			{
+				String option = args[i];
+
+				if(option.equals("--traces"))
+					traces = value;
+				else if(option.equals("--policies"))
+					policies = value;
+				else if(option.equals("--sizes"))
+					sizes = value;
+				else if(option.equals("--keys"))
+					keys = positive(option, Integer.parseInt(value));
+				else if(option.equals("--length"))
+					length = positive(option, Integer.parseInt(value));
+				else if(option.equals("--exponent"))
+					exponent = Double.parseDouble(value);
+				else if(option.equals("--seed"))
+					seed = Long.parseLong(value);
+				else
+					throw new IllegalArgumentException("Unknown option: " + option);
+			}
+			catch(NumberFormatException e)
+			{
+				throw new IllegalArgumentException("Invalid value for option " + args[i] + ": " + value);
+			}
+		}
+	}
+
+	private void run() throws IOException
+	{
+		List<Integer> sizes = new ArrayList<>();
+
+		for(String size : this.sizes.split(","))
+		{
+			try
+			{
+				sizes.add(positive("--sizes", Integer.parseInt(size.trim())));
+			}
+			catch(NumberFormatException e)
+			{
+				throw new IllegalArgumentException("Invalid size: " + size);
+			}
+		}
+
+		Map<String, BiFunction<Trace, Integer, Policy>> selected = new LinkedHashMap<>();
+
+		for(String policy : policies.split(","))
+		{
+			BiFunction<Trace, Integer, Policy> factory = POLICIES.get(policy.trim());
+
+			if(factory == null)
+				throw new IllegalArgumentException("Unknown policy: " + policy);
+
+			selected.put(policy.trim(), factory);
+		}
+
+		for(String name : traces.split(","))
+		{
+			Trace trace = trace(name.trim());
+			// computed up front, so it is not charged to the optimal policy
+			trace.nextUses();
+
+			out.printf("%s: %,d accesses of %,d keys%n", trace.name(), trace.length(), trace.distinctKeys());
+			out.printf("  %-14s %8s %9s %13s %12s%n", "policy", "size", "hit rate", "accesses/s", "memory");
+
+			for(Map.Entry<String, BiFunction<Trace, Integer, Policy>> policy : selected.entrySet())
+			{
+				replay(policy.getValue().apply(trace, sizes.get(0)), trace, Math.min(trace.length(), WARM_UP_LENGTH));
+
+				for(int size : sizes)
+				{
+					Result result = simulate(policy.getValue(), trace, size);
+					out.printf("  %-14s %8d %8.2f%% %13s %9d KiB%n", policy.getKey(), size, result.hitRate() * 100D, String.format("%,d", result.accessesPerSecond()), result.retainedBytes / 1024L);
+				}
+			}
+
+			out.println();
+		}
+	}
+
+	private Trace trace(String name) throws IOException
+	{
+		if(name.equals("zipf"))
+			return Trace.zipf(keys, exponent, length, seed);
+		if(name.equals("scan"))
+			return Trace.scan(keys, exponent, Math.max(1, keys / 10), length, seed);
+		if(name.equals("loop"))
+			return Trace.loop(keys, length);
+
+		return Trace.read(Path.of(name));
+	}
+
+	private static Result simulate(BiFunction<Trace, Integer, Policy> factory, Trace trace, int size)
+	{
+		long heapBefore = usedHeap();
+		Policy policy = factory.apply(trace, size);
+
+		long start = System.nanoTime();
+		long hits = replay(policy, trace, trace.length());
+		long elapsed = System.nanoTime() - start;
+
+		long retained = Math.max(0L, usedHeap() - heapBefore);
+		Reference.reachabilityFence(policy);
+		return new Result(trace.length(), hits, elapsed, retained);
+	}
+
+	private static long replay(Policy policy, Trace trace, int length)
+	{
+		long hits = 0L;
+
+		for(int i = 0; i < length; i++)
+		{
+			if(policy.access(trace.key(i)))
+				hits++;
+		}
+
+		return hits;
+	}
+
+	private static long usedHeap()
+	{
+		Runtime runtime = Runtime.getRuntime();
+
+		// a single request may leave garbage behind, such as objects only reachable from finalizers
+		for(int i = 0; i < 4; i++)
+		{
+			System.gc();
+		}
+
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static int positive(String option, int value)
+	{
+		if(value <= 0)
+			throw new IllegalArgumentException("Value for option " + option + " must be positive: " + value);
+
+		return value;
+	}
+
+	private static final class Result
+	{
+		private final long accesses;
+		private final long hits;
+		private final long elapsedNanos;
+		private final long retainedBytes;
+
+		private Result(long accesses, long hits, long elapsedNanos, long retainedBytes)
+		{
+			this.accesses = accesses;
+			this.hits = hits;
+			this.elapsedNanos = elapsedNanos;
+			this.retainedBytes = retainedBytes;
+		}
+
+		private double hitRate()
+		{
+			return accesses == 0L ? 0D : (double) hits / accesses;
+		}
+
+		private long accessesPerSecond()
+		{
+			return elapsedNanos == 0L ? 0L : accesses * 1_000_000_000L / elapsedNanos;
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package xyz.apex.java.utility.simulator;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Sequence of key accesses replayed against each {@link Policy} by the {@link Simulator}.
+ * <br>
+ * Traces are either read from a file or generated synthetically, synthetic traces are deterministic for a given seed.
+ * Synthetic keys are scrambled ranks, so that popular keys are not also neighbouring keys.
+ */
+public final class Trace
+{
+	// odd, so scrambling ranks is a bijection
+	private static final long SCRAMBLE = 0x9E3779B97F4A7C15L;
+
+	private final String name;
+	private final long[] keys;
+	@Nullable private int[] nextUses = null;
+
+	private Trace(String name, long[] keys)
+	{
+		this.name = name;
+		this.keys = keys;
+	}
+
+	/**
+	 * Returns the name of this trace.
+	 *
+	 * @return The name of this trace.
+	 */
+	public String name()
+	{
+		return name;
+	}
+
+	/**
+	 * Returns the number of accesses in this trace.
+	 *
+	 * @return The number of accesses in this trace.
+	 */
+	public int length()
+	{
+		return keys.length;
+	}
+
+	/**
+	 * Returns the key accessed at the given position of this trace.
+	 *
+	 * @param index The position of the access.
+	 * @return The key accessed at the given position.
+	 */
+	public long key(int index)
+	{
+		return keys[index];
+	}
+
+	/**
+	 * Returns the number of distinct keys accessed by this trace.
+	 *
+	 * @return The number of distinct keys accessed by this trace.
+	 */
+	public int distinctKeys()
+	{
+		long[] sorted = keys.clone();
+		Arrays.sort(sorted);
+		int distinct = 0;
+
+		for(int i = 0; i < sorted.length; i++)
+		{
+			if(i == 0 || sorted[i] != sorted[i - 1])
+				distinct++;
+		}
+
+		return distinct;
+	}
+
+	/**
+	 * Returns, for every position of this trace, the position its key is next accessed at,
+	 * or {@link #length()} if it is never accessed again.
+	 * <br>
+	 * Computed on first use and retained, used by the clairvoyant {@link Policies#optimal(Trace, int)} policy.
+	 *
+	 * @return The next use of every position of this trace.
+	 */
+	int[] nextUses()
+	{
+		int[] nextUses = this.nextUses;
+
+		if(nextUses == null)
+		{
+			int[] next = new int[keys.length];
+			Map<Long, Integer> seen = new HashMap<>();
+
+			for(int i = keys.length - 1; i >= 0; i--)
+			{
+				Integer later = seen.put(keys[i], i);
+				next[i] = later == null ? keys.length : later;
+			}
+
+			nextUses = next;
+			this.nextUses = next;
+		}
+
+		return nextUses;
+	}
+
+	/**
+	 * Reads a trace from the given file.
+	 * <br>
+	 * Every non blank line is one access, lines starting with {@code #} are ignored.
+	 * Lines holding a number are used as the key as is, any other line is assigned a key per distinct line,
+	 * so {@link xyz.apex.java.utility.api.lazy.LazyTrace} files and logs of string keys can be replayed directly.
+	 *
+	 * @param file The file to read the trace from.
+	 * @return The trace read from the given file.
+	 * @throws IOException if the file could not be read
+	 */
+	public static Trace read(Path file) throws IOException
+	{
+		long[] keys = new long[1024];
+		int length = 0;
+		Map<String, Long> named = new HashMap<>();
+
+		try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+		{
+			String line;
+
+			while((line = reader.readLine()) != null)
+			{
+				line = line.trim();
+
+				if(line.isEmpty() || line.startsWith("#"))
+					continue;
+				if(length == keys.length)
+					keys = Arrays.copyOf(keys, length * 2);
+
+				keys[length++] = parse(line, named);
+			}
+		}
+
+		return new Trace(file.getFileName().toString(), Arrays.copyOf(keys, length));
+	}
+
+	private static long parse(String line, Map<String, Long> named)
+	{
+		try
+		{
+			return Long.parseLong(line);
+		}
+		catch(NumberFormatException e)
+		{
+			// numbers are used as is, so named keys count up from the bottom of the range to stay clear of them
+			return named.computeIfAbsent(line, k -> Long.MIN_VALUE + named.size());
+		}
+	}
+
+	/**
+	 * Generates a trace of keys drawn from a Zipf distribution, as seen by most caches of popular content.
+	 *
+	 * @param keys The number of distinct keys to draw from.
+	 * @param exponent The skew of the distribution, larger exponents concentrate accesses on fewer keys.
+	 * @param length The number of accesses to generate.
+	 * @param seed The seed of the generated trace.
+	 * @return The generated trace.
+	 */
+	public static Trace zipf(int keys, double exponent, int length, long seed)
+	{
+		Zipf zipf = new Zipf(keys, exponent);
+		SplittableRandom random = new SplittableRandom(seed);
+		long[] trace = new long[length];
+
+		for(int i = 0; i < length; i++)
+		{
+			trace[i] = zipf.next(random) * SCRAMBLE;
+		}
+
+		return new Trace("zipf", trace);
+	}
+
+	/**
+	 * Generates a Zipf trace interrupted by sequential scans of keys which are never accessed again,
+	 * as seen when batch jobs or iteration share a cache with regular traffic.
+	 * <br>
+	 * Every run of {@code 4 * scanLength} Zipf accesses is followed by a scan of {@code scanLength} new keys.
+	 *
+	 * @param keys The number of distinct keys the Zipf accesses draw from.
+	 * @param exponent The skew of the Zipf distribution.
+	 * @param scanLength The number of keys of each scan.
+	 * @param length The number of accesses to generate.
+	 * @param seed The seed of the generated trace.
+	 * @return The generated trace.
+	 */
+	public static Trace scan(int keys, double exponent, int scanLength, int length, long seed)
+	{
+		Zipf zipf = new Zipf(keys, exponent);
+		SplittableRandom random = new SplittableRandom(seed);
+		long[] trace = new long[length];
+		long scanned = keys;
+
+		for(int i = 0; i < length; i++)
+		{
+			if(i % (scanLength * 5) < scanLength * 4)
+				trace[i] = zipf.next(random) * SCRAMBLE;
+			else
+				trace[i] = scanned++ * SCRAMBLE;
+		}
+
+		return new Trace("scan", trace);
+	}
+
+	/**
+	 * Generates a trace repeatedly accessing the same keys in the same order, as seen by loops over a working set.
+	 * <br>
+	 * Recency based policies miss on every access once the loop no longer fits.
+	 *
+	 * @param keys The number of distinct keys of the loop.
+	 * @param length The number of accesses to generate.
+	 * @return The generated trace.
+	 */
+	public static Trace loop(int keys, int length)
+	{
+		long[] trace = new long[length];
+
+		for(int i = 0; i < length; i++)
+		{
+			trace[i] = (long) (i % keys) * SCRAMBLE;
+		}
+
+		return new Trace("loop", trace);
+	}
+
+	private static final class Zipf
+	{
+		private final double[] cumulative;
+
+		private Zipf(int keys, double exponent)
+		{
+			cumulative = new double[keys];
+			double sum = 0D;
+
+			for(int rank = 0; rank < keys; rank++)
+			{
+				sum += 1D / Math.pow(rank + 1D, exponent);
+				cumulative[rank] = sum;
+			}
+
+			for(int rank = 0; rank < keys; rank++)
+			{
+				cumulative[rank] /= sum;
+			}
+		}
+
+		private long next(SplittableRandom random)
+		{
+			int index = Arrays.binarySearch(cumulative, random.nextDouble());
+			return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+		}
+	}
+}